@@ -0,0 +1,80 @@
+package com.gt.notification_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How often and how late a failed notification message is retried before it is parked.
+ *
+ * A message may be delivered app.notifications.retry.max-attempts times. After the n-th failed delivery it waits
+ * in the queue's retry queue for initial-delay-ms * multiplier^(n-1) (at most max-delay-ms) and then returns to
+ * its queue; after the last one it goes to the queue's parking lot. Retry queues are named after their delay, so
+ * changing these settings declares new ones instead of clashing with the arguments of existing queues.
+ */
+@Component
+public class NotificationRetryPolicy {
+
+    public static final String ATTEMPTS_HEADER = "x-notification-attempts";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-original-queue";
+    public static final String PARKED_REASON_HEADER = "x-parked-reason";
+    // Comma-separated recipient roles of a multi-recipient message whose email already went out
+    public static final String DELIVERED_RECIPIENTS_HEADER = "x-notification-delivered";
+
+    private final int maxAttempts;
+    private final long initialDelayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+
+    public NotificationRetryPolicy(@Value("${app.notifications.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.notifications.retry.initial-delay-ms:5000}") long initialDelayMs,
+                                   @Value("${app.notifications.retry.multiplier:4}") double multiplier,
+                                   @Value("${app.notifications.retry.max-delay-ms:600000}") long maxDelayMs) {
+        if (maxAttempts < 1 || initialDelayMs < 1 || multiplier < 1 || maxDelayMs < initialDelayMs) {
+            throw new IllegalArgumentException("Invalid app.notifications.retry settings.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMs = initialDelayMs;
+        this.multiplier = multiplier;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param attempt The number of deliveries that failed so far, 1 for the first
+     */
+    public long delayAfterAttempt(int attempt) {
+        return (long) Math.min(maxDelayMs, initialDelayMs * Math.pow(multiplier, attempt - 1));
+    }
+
+    /**
+     * @return The distinct delays of all retries, shortest first
+     */
+    public List<Long> delays() {
+        List<Long> delays = new ArrayList<>();
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            long delay = delayAfterAttempt(attempt);
+            if (!delays.contains(delay)) {
+                delays.add(delay);
+            }
+        }
+        return delays;
+    }
+
+    public String retryQueueName(String queue, int attempt) {
+        return retryQueueNameForDelay(queue, delayAfterAttempt(attempt));
+    }
+
+    public static String retryQueueNameForDelay(String queue, long delayMs) {
+        return queue + ".retry." + delayMs;
+    }
+
+    public static String parkingLotName(String queue) {
+        return queue + ".parking-lot";
+    }
+}
@@ -1,14 +1,25 @@
 package com.gt.notification_service.config; // <-- Make sure this package name is correct for each service
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier; // <-- Add this import
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class RabbitMQConfig {
@@ -30,16 +41,92 @@ public class RabbitMQConfig {
     public static final String QUEUE_PASSWORD_RESET_NAME = "password.reset.queue";
     public static final String ROUTING_KEY_PASSWORD_RESET = "password.event.reset";
 
+    public static final List<String> NOTIFICATION_QUEUES = List.of(QUEUE_APPROVED_NAME, QUEUE_REJECTED_NAME,
+            QUEUE_EXPIRED_NAME, QUEUE_USER_CREATED_NAME, QUEUE_PASSWORD_RESET_NAME);
+
     @Bean
     public TopicExchange exchange() {
         return new TopicExchange(EXCHANGE_NAME);
     }
 
+    /**
+     * Per notification queue: one retry queue per backoff delay, whose messages return to the queue when their
+     * TTL expires, and a parking lot for messages that ran out of attempts (see RabbitMQErrorHandler).
+     * Returning messages join the tail of their queue, behind the fresh messages already waiting.
+     */
+    @Bean
+    public Declarables notificationRetryTopology(NotificationRetryPolicy retryPolicy) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : NOTIFICATION_QUEUES) {
+            for (long delay : retryPolicy.delays()) {
+                declarables.add(QueueBuilder.durable(NotificationRetryPolicy.retryQueueNameForDelay(queue, delay))
+                        .ttl((int) delay)
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+            declarables.add(QueueBuilder.durable(NotificationRetryPolicy.parkingLotName(queue)).build());
+        }
+        return new Declarables(declarables);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
+    // One listener container factory per queue, so each queue gets its own consumers and prefetch.
+    // Settings: app.notifications.queues.<name>.concurrency / max-concurrency / prefetch, falling back to
+    // app.notifications.queues.default.*
+    @Bean
+    public SimpleRabbitListenerContainerFactory approvedListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                        ConnectionFactory connectionFactory, Environment environment) {
+        return listenerFactory(configurer, connectionFactory, environment, "approved");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory rejectedListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                        ConnectionFactory connectionFactory, Environment environment) {
+        return listenerFactory(configurer, connectionFactory, environment, "rejected");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory expiredListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                       ConnectionFactory connectionFactory, Environment environment) {
+        return listenerFactory(configurer, connectionFactory, environment, "expired");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory userCreatedListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                           ConnectionFactory connectionFactory, Environment environment) {
+        return listenerFactory(configurer, connectionFactory, environment, "user-created");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory passwordResetListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                             ConnectionFactory connectionFactory, Environment environment) {
+        return listenerFactory(configurer, connectionFactory, environment, "password-reset");
+    }
+
+    private SimpleRabbitListenerContainerFactory listenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                 ConnectionFactory connectionFactory, Environment environment,
+                                                                 String queue) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        int concurrency = queueSetting(environment, queue, "concurrency", 1);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, queueSetting(environment, queue, "max-concurrency", concurrency)));
+        factory.setPrefetchCount(queueSetting(environment, queue, "prefetch", 250));
+        // Listeners return the future of their sends (EmailSendDispatcher); the message is acked when it completes
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    private static int queueSetting(Environment environment, String queue, String name, int fallback) {
+        Integer shared = environment.getProperty("app.notifications.queues.default." + name, Integer.class, fallback);
+        return environment.getProperty("app.notifications.queues." + queue + "." + name, Integer.class, shared);
+    }
+
     // VVV --- FIX: Added unique names to each Queue bean --- VVV
     @Bean(name = "approvedQueue")
     public Queue approvedQueue() {
@@ -1,30 +1,124 @@
 package com.gt.notification_service.config;
 
+import com.gt.notification_service.service.PartialDeliveryException;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
 import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Settles every failed notification message itself, instead of letting the container requeue it at once.
+ *
+ * A message that cannot be read is parked straight away. Any other failure is counted in the
+ * x-notification-attempts header: until NotificationRetryPolicy's maximum is reached, the message is republished
+ * to its queue's retry queue for the next backoff delay, otherwise to the queue's parking lot, which
+ * ParkingLotReplayer empties on request. When only some recipients of a message were emailed
+ * (PartialDeliveryException), they are recorded in the x-notification-delivered header, which stays on the message
+ * through its retries and parking, so later attempts only email the others. Republishing and acking happen on the
+ * consumer's channel; if the republish fails the message is requeued.
+ */
 @Component
 public class RabbitMQErrorHandler implements RabbitListenerErrorHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQErrorHandler.class);
 
+    private final NotificationRetryPolicy retryPolicy;
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public RabbitMQErrorHandler(NotificationRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
     @Override
-    public Object handleError(org.springframework.amqp.core.Message amqpMessage,
+    public Object handleError(Message amqpMessage,
                               org.springframework.messaging.Message<?> message,
                               ListenerExecutionFailedException exception) throws Exception {
+        // The listener containers always pass their channel (see below); without it the message cannot be settled here
+        throw exception;
+    }
 
-        logger.error("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
-        logger.error("RABBITMQ LISTENER FAILED");
-        logger.error("This is likely due to a JSON deserialization error (DTO mismatch).");
-        logger.error("Cause: {}", exception.getCause().getMessage());
-        logger.error("Failed Message Payload: {}", new String(amqpMessage.getBody()));
-        logger.error("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
+    @Override
+    public Object handleError(Message amqpMessage, Channel channel,
+                              org.springframework.messaging.Message<?> message,
+                              ListenerExecutionFailedException exception) throws Exception {
+        if (channel == null) {
+            return handleError(amqpMessage, message, exception);
+        }
+        MessageProperties properties = amqpMessage.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        int attempts = attemptsSoFar(properties) + 1;
+        boolean unreadable = isUnreadable(exception);
 
-        // Re-throwing the exception will cause the message to be rejected.
-        // Depending on your broker config, it might go to a Dead Letter Queue.
-        throw exception;
+        String target;
+        if (unreadable || attempts >= retryPolicy.getMaxAttempts()) {
+            target = NotificationRetryPolicy.parkingLotName(queue);
+            properties.setHeader(NotificationRetryPolicy.ORIGINAL_QUEUE_HEADER, queue);
+            properties.setHeader(NotificationRetryPolicy.PARKED_REASON_HEADER, String.valueOf(cause.getMessage()));
+            if (unreadable) {
+                logger.error("Parking unreadable message from {} (likely a DTO mismatch). Cause: {}. Payload: {}",
+                        queue, cause.getMessage(), new String(amqpMessage.getBody(), StandardCharsets.UTF_8));
+            } else {
+                logger.error("Parking message from {} after {} failed attempts. Last cause: {}", queue, attempts, cause.getMessage());
+            }
+        } else {
+            target = retryPolicy.retryQueueName(queue, attempts);
+            logger.warn("Attempt {} of {} for a message from {} failed; retrying in {} ms. Cause: {}", attempts,
+                    retryPolicy.getMaxAttempts(), queue, retryPolicy.delayAfterAttempt(attempts), cause.getMessage());
+        }
+        properties.setHeader(NotificationRetryPolicy.ATTEMPTS_HEADER, attempts);
+        Set<String> delivered = deliveredRecipients(exception);
+        if (!delivered.isEmpty()) {
+            properties.setHeader(NotificationRetryPolicy.DELIVERED_RECIPIENTS_HEADER, String.join(",", new TreeSet<>(delivered)));
+        }
+
+        long deliveryTag = properties.getDeliveryTag();
+        // Sends may fail on several virtual threads at once; keep each publish + ack together on the channel
+        synchronized (channel) {
+            try {
+                channel.basicPublish("", target, propertiesConverter.fromMessageProperties(properties, "UTF-8"), amqpMessage.getBody());
+                channel.basicAck(deliveryTag, false);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to move a message from {} to {}; requeueing it: {}", queue, target, e.getMessage());
+                channel.basicNack(deliveryTag, false, true);
+            }
+        }
+        return null;
+    }
+
+    private static int attemptsSoFar(MessageProperties properties) {
+        Object attempts = properties.getHeader(NotificationRetryPolicy.ATTEMPTS_HEADER);
+        return attempts instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static Set<String> deliveredRecipients(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PartialDeliveryException partial) {
+                return partial.getDeliveredRecipients();
+            }
+        }
+        return Set.of();
+    }
+
+    private static boolean isUnreadable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MessageConversionException
+                    || cause instanceof org.springframework.messaging.converter.MessageConversionException) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
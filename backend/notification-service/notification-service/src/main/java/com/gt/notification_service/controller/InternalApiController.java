@@ -1,8 +1,11 @@
 package com.gt.notification_service.controller;
 
 import com.gt.notification_service.dto.EmailAuditLogResponse;
+import com.gt.notification_service.dto.ParkingLotStatus;
 import com.gt.notification_service.model.EmailAuditLog;
 import com.gt.notification_service.repository.EmailAuditLogRepository;
+import com.gt.notification_service.service.ParkingLotReplayer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +17,11 @@ import java.util.stream.Collectors;
 public class InternalApiController {
 
     private final EmailAuditLogRepository emailAuditLogRepository;
+    private final ParkingLotReplayer parkingLotReplayer;
 
-    public InternalApiController(EmailAuditLogRepository emailAuditLogRepository) {
+    public InternalApiController(EmailAuditLogRepository emailAuditLogRepository, ParkingLotReplayer parkingLotReplayer) {
         this.emailAuditLogRepository = emailAuditLogRepository;
+        this.parkingLotReplayer = parkingLotReplayer;
     }
 
     @PostMapping("/email-logs/by-pass-ids")
@@ -40,4 +45,23 @@ public class InternalApiController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/parking-lot")
+    public ResponseEntity<List<ParkingLotStatus>> getParkingLots() {
+        return ResponseEntity.ok(parkingLotReplayer.getStatus());
+    }
+
+    // Moves parked messages of one queue (e.g. pass.expired.queue) back to it in the background, at most ratePerSecond
+    @PostMapping("/parking-lot/{queue}/replay")
+    public ResponseEntity<?> replayParkedMessages(@PathVariable String queue,
+                                                  @RequestParam(defaultValue = "100") int maxMessages,
+                                                  @RequestParam(defaultValue = "5") int ratePerSecond) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(parkingLotReplayer.replay(queue, maxMessages, ratePerSecond));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gt.notification_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingLotStatus {
+    private String queue;          // The notification queue the parked messages came from
+    private String parkingLot;
+    private long parkedMessages;
+    private boolean replaying;
+}
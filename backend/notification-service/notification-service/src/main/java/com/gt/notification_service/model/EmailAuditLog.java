@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "email_audit_logs")
+@Table(name = "email_audit_logs", indexes = {
+        // Outcomes are written by correlation id (see EmailAuditWriter)
+        @Index(name = "idx_email_audit_correlation_id", columnList = "correlation_id")
+})
 public class EmailAuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,230 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.model.EmailAuditLog;
+import com.gt.notification_service.model.EmailStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind writer for email_audit_logs.
+ *
+ * Listeners hand over the PENDING row before sending and its outcome after; both are queued (bounded by
+ * app.email-audit.queue-capacity, so a full queue slows the listeners down instead of dropping records) and one
+ * "email-audit-writer" thread writes whatever has piled up, up to app.email-audit.batch-size records, as JDBC
+ * batches in one transaction. An outcome whose PENDING row is in the same batch is folded into its insert, so
+ * under load most emails cost one batched insert. Outcomes are matched to their row by correlation_id, since
+ * rows are written without reading back their generated id. A failed batch is retried with backoff until it is
+ * written; on shutdown the queue is drained before the DataSource goes away.
+ */
+@Service
+public class EmailAuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailAuditWriter.class);
+    private static final long POLL_TIMEOUT_MS = 500L;
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000L;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    static final String INSERT_SQL = "INSERT INTO email_audit_logs (correlation_id, associated_pass_id, recipient_address, "
+            + "subject, body, status, failure_reason, created_at, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_SQL = "UPDATE email_audit_logs SET status = ?, failure_reason = ?, processed_at = ? "
+            + "WHERE correlation_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditWrite> queue;
+    private final int batchSize;
+    private final long retryBackoffMs;
+    private final long shutdownTimeoutMs;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-audit-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopping;
+
+    public EmailAuditWriter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.email-audit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.email-audit.batch-size:500}") int batchSize,
+                            @Value("${app.email-audit.retry-backoff-ms:1000}") long retryBackoffMs,
+                            @Value("${app.email-audit.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.retryBackoffMs = retryBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        writer.execute(this::run);
+    }
+
+    /**
+     * Drains the queue, then stops the writer. Listener containers are stopped before this runs, so nothing new
+     * arrives in the meantime.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                writer.shutdownNow();
+                logger.error("Email audit writer did not finish within {} ms; {} records were not written.",
+                        shutdownTimeoutMs, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues the insert of a new audit row. Blocks while the queue is full.
+     */
+    public void recordPending(EmailAuditLog log) {
+        enqueue(new AuditWrite(true, log.getCorrelationId(), log.getAssociatedPassId(), log.getRecipientAddress(),
+                log.getSubject(), log.getBody(), log.getStatus(), log.getFailureReason(), log.getCreatedAt(),
+                log.getProcessedAt()));
+    }
+
+    /**
+     * Queues the status, failure reason and processing time of a row queued with recordPending.
+     */
+    public void recordOutcome(EmailAuditLog log) {
+        enqueue(new AuditWrite(false, log.getCorrelationId(), null, null, null, null, log.getStatus(),
+                log.getFailureReason(), null, log.getProcessedAt()));
+    }
+
+    private void enqueue(AuditWrite write) {
+        if (!stopping) {
+            try {
+                queue.put(write);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // The writer is draining for shutdown (or this thread was interrupted); write this one directly
+        write(List.of(write));
+    }
+
+    private void run() {
+        List<AuditWrite> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                AuditWrite first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopping) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.error("Email audit writer interrupted; {} records were not written.", batch.size() + queue.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeWithRetry(List<AuditWrite> batch) throws InterruptedException {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (DataAccessException | TransactionException e) {
+                if (stopping && attempt >= SHUTDOWN_ATTEMPTS) {
+                    logger.error("Giving up on {} email audit records during shutdown after {} attempts: {}",
+                            batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                logger.error("Failed to write {} email audit records (attempt {}); retrying in {} ms: {}",
+                        batch.size(), attempt, backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void write(List<AuditWrite> batch) {
+        List<AuditWrite> inserts = new ArrayList<>();
+        List<AuditWrite> updates = new ArrayList<>();
+        coalesce(batch, inserts, updates);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, row) -> {
+                    ps.setString(1, row.correlationId());
+                    ps.setObject(2, row.associatedPassId());
+                    ps.setString(3, row.recipientAddress());
+                    ps.setString(4, row.subject());
+                    ps.setString(5, row.body());
+                    ps.setString(6, row.status() != null ? row.status().name() : null);
+                    ps.setString(7, row.failureReason());
+                    ps.setObject(8, row.createdAt());
+                    ps.setObject(9, row.processedAt());
+                });
+            }
+            // After the inserts, so an outcome may follow its row within the same transaction
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, row) -> {
+                    ps.setString(1, row.status() != null ? row.status().name() : null);
+                    ps.setString(2, row.failureReason());
+                    ps.setObject(3, row.processedAt());
+                    ps.setString(4, row.correlationId());
+                });
+            }
+        });
+        logger.debug("Wrote {} email audit inserts and {} status updates.", inserts.size(), updates.size());
+    }
+
+    /**
+     * Splits a batch into inserts and updates, folding each outcome into its insert when that is in the batch too.
+     */
+    static void coalesce(List<AuditWrite> batch, List<AuditWrite> inserts, List<AuditWrite> updates) {
+        Map<String, AuditWrite> pendingInserts = new LinkedHashMap<>();
+        for (AuditWrite write : batch) {
+            if (write.insert()) {
+                pendingInserts.put(write.correlationId(), write);
+            } else if (pendingInserts.containsKey(write.correlationId())) {
+                pendingInserts.computeIfPresent(write.correlationId(), (id, insert) -> insert.withOutcome(write));
+            } else {
+                updates.add(write);
+            }
+        }
+        inserts.addAll(pendingInserts.values());
+    }
+
+    /**
+     * One queued write: a whole row to insert, or the outcome columns of a row identified by its correlation id.
+     */
+    record AuditWrite(boolean insert, String correlationId, Long associatedPassId, String recipientAddress,
+                      String subject, String body, EmailStatus status, String failureReason,
+                      LocalDateTime createdAt, LocalDateTime processedAt) {
+
+        AuditWrite withOutcome(AuditWrite outcome) {
+            return new AuditWrite(true, correlationId, associatedPassId, recipientAddress, subject, body,
+                    outcome.status(), outcome.failureReason(), createdAt, outcome.processedAt());
+        }
+    }
+}
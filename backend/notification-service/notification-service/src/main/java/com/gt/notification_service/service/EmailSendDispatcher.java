@@ -0,0 +1,101 @@
+package com.gt.notification_service.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the email sends of a notification message, inline or on virtual threads.
+ *
+ * Listener methods return the future from dispatch and their containers ack manually (see RabbitMQConfig), so a
+ * message is acked only once its sends completed and goes to RabbitMQErrorHandler (retry or parking) if they threw. With
+ * app.notifications.async-send.enabled the sends run on a virtual thread each, so throughput follows SMTP
+ * parallelism rather than the number of listener threads; at most app.notifications.async-send.max-in-flight
+ * run at once, and a listener thread waits for a free slot before taking its next message. Otherwise they run
+ * on the listener thread. A send still running when the node stops is redelivered to another consumer, so an
+ * email may then go out twice.
+ */
+@Service
+@DependsOn("emailAuditWriter") // Sends finishing during shutdown still record their outcome
+public class EmailSendDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailSendDispatcher.class);
+
+    private final boolean asyncEnabled;
+    private final Semaphore inFlight;
+    private final long shutdownTimeoutMs;
+    private final ExecutorService senders;
+
+    public EmailSendDispatcher(@Value("${app.notifications.async-send.enabled:false}") boolean asyncEnabled,
+                               @Value("${app.notifications.async-send.max-in-flight:100}") int maxInFlight,
+                               @Value("${app.notifications.async-send.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.asyncEnabled = asyncEnabled;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.senders = asyncEnabled
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("smtp-send-", 0).factory())
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senders == null) {
+            return;
+        }
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Email sends still running after {} ms; their messages will be redelivered.", shutdownTimeoutMs);
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param sends The sends of one message
+     * @return Completes when the sends are done, exceptionally if they threw
+     */
+    public CompletableFuture<Void> dispatch(Runnable sends) {
+        if (!asyncEnabled) {
+            return runInline(sends);
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return runInline(sends);
+        }
+        try {
+            return CompletableFuture.runAsync(sends, senders).whenComplete((result, error) -> inFlight.release());
+        } catch (RejectedExecutionException e) {
+            // Shutting down; send on this thread rather than leave the message unacked
+            inFlight.release();
+            return runInline(sends);
+        }
+    }
+
+    int availableSlots() {
+        return inFlight.availablePermits();
+    }
+
+    private CompletableFuture<Void> runInline(Runnable sends) {
+        try {
+            sends.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
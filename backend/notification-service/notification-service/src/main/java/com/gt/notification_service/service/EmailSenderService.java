@@ -10,22 +10,29 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 @Service
 public class EmailSenderService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailSenderService.class);
 
     private final JavaMailSender javaMailSender;
+    private final SmtpTransportPool transportPool;
     private final String fromEmail;
 
     public EmailSenderService(JavaMailSender javaMailSender,
+                              SmtpTransportPool transportPool,
                               @Value("${spring.mail.username}") String fromEmail) {
         this.javaMailSender = javaMailSender;
+        this.transportPool = transportPool;
         this.fromEmail = fromEmail;
     }
 
     /**
-     * Sends a rich HTML email using SMTP.
+     * Sends a rich HTML email using SMTP, over a pooled connection.
      *
      * @param to The recipient's email address.
      * @param subject The subject of the email.
@@ -33,30 +40,99 @@ public class EmailSenderService {
      * @return true if the email was sent successfully, false otherwise.
      */
     public boolean sendEmail(String to, String subject, String htmlBody) {
-        // VVV --- THIS IS THE UPGRADED LOGIC --- VVV
-        
+        MimeMessage message;
+        try {
+            message = createMessage(to, subject, htmlBody);
+        } catch (MessagingException e) {
+            logger.error("Failed to build HTML email to {}. Error: {}", to, e.getMessage());
+            return false;
+        }
+        boolean sent = sendBatch(List.of(message)).get(0);
+        if (sent) {
+            logger.info("Successfully sent HTML email to {}", to);
+        }
+        return sent;
+    }
+
+    /**
+     * Builds an HTML email from the configured sender, for sendBatch.
+     */
+    public MimeMessage createMessage(String to, String subject, String htmlBody) throws MessagingException {
         // Create a MimeMessage that can handle HTML
         MimeMessage message = javaMailSender.createMimeMessage();
+        // Use the MimeMessageHelper to build the email
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        // This is the most critical line: Set the body and specify that it IS HTML.
+        helper.setText(htmlBody, true);
+        return message;
+    }
 
-        try {
-            // Use the MimeMessageHelper to build the email
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    /**
+     * Sends the messages in order through as few SMTP sessions as possible: one pooled connection carries them
+     * until it reaches its message limit or breaks. A message whose send broke the connection before the server
+     * took its content is retried once on a fresh one. A message that failed after DATA is not, since the server
+     * may already have accepted it and a resend could deliver it twice; nor is one with rejected recipients.
+     *
+     * @return Per message, in order, whether it was sent
+     */
+    public List<Boolean> sendBatch(List<MimeMessage> messages) {
+        Boolean[] sent = new Boolean[messages.size()];
+        Arrays.fill(sent, Boolean.FALSE);
+        if (!transportPool.isEnabled()) {
+            // Not a JavaMailSenderImpl (e.g. a test double); send one by one
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    javaMailSender.send(messages.get(i));
+                    sent[i] = true;
+                } catch (MailException e) {
+                    logger.error("Failed to send HTML email to {}. Error: {}", recipients(messages.get(i)), e.getMessage());
+                }
+            }
+            return Collections.unmodifiableList(Arrays.asList(sent));
+        }
 
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            
-            // This is the most critical line: Set the body and specify that it IS HTML.
-            helper.setText(htmlBody, true);
+        int next = 0;
+        boolean retrying = false;
+        while (next < messages.size()) {
+            SmtpTransportPool.PooledTransport transport;
+            try {
+                transport = transportPool.borrow();
+            } catch (MessagingException e) {
+                logger.error("Failed to open an SMTP connection; {} emails not sent. Error: {}", messages.size() - next, e.getMessage());
+                break;
+            }
+            try {
+                while (next < messages.size() && transport.isReusable()) {
+                    MimeMessage message = messages.get(next);
+                    try {
+                        transport.send(message);
+                        sent[next++] = true;
+                        retrying = false;
+                    } catch (MessagingException e) {
+                        if (transport.isBroken() && !retrying && !transport.mayHaveBeenDelivered()) {
+                            retrying = true;
+                            break;
+                        }
+                        logger.error("Failed to send HTML email to {}. Error: {}", recipients(message), e.getMessage());
+                        next++;
+                        retrying = false;
+                    }
+                }
+            } finally {
+                transportPool.release(transport);
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(sent));
+    }
 
-            javaMailSender.send(message);
-            logger.info("Successfully sent HTML email to {}", to);
-            return true;
-        
-        // Catch both potential exception types for robustness
-        } catch (MessagingException | MailException e) {
-            logger.error("Failed to send HTML email to {}. Error: {}", to, e.getMessage());
-            return false;
+    private String recipients(MimeMessage message) {
+        try {
+            return message.getAllRecipients() != null ? Arrays.toString(message.getAllRecipients()) : "(none)";
+        } catch (MessagingException e) {
+            return "(unknown)";
         }
     }
-}
\ No newline at end of file
+}
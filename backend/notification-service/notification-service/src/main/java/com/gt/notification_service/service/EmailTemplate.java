@@ -0,0 +1,146 @@
+package com.gt.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML email template parsed once into literal text and named values.
+ *
+ * {{name}} is replaced by the value HTML-escaped, {{{name}}} by the value as is (only for trusted markup); a
+ * missing or null value renders as nothing. Values are escaped in one pass straight into the output, and each
+ * render starts with a buffer sized to the largest output seen so far, so it is not regrown on the way.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // Size guessed for each value until the first render
+    private static final int VALUE_SIZE_GUESS = 32;
+
+    private final String id;
+    private final int version;
+    private final String[] literals;
+    // values[i] comes after literals[i]; literals has one more element
+    private final String[] valueNames;
+    private final boolean[] escaped;
+    private volatile int sizeHint;
+
+    private EmailTemplate(String id, int version, List<String> literals, List<String> valueNames, List<Boolean> escaped) {
+        this.id = id;
+        this.version = version;
+        this.literals = literals.toArray(String[]::new);
+        this.valueNames = valueNames.toArray(String[]::new);
+        this.escaped = new boolean[escaped.size()];
+        int literalLength = 0;
+        for (String literal : this.literals) {
+            literalLength += literal.length();
+        }
+        for (int i = 0; i < this.escaped.length; i++) {
+            this.escaped[i] = escaped.get(i);
+        }
+        this.sizeHint = literalLength + VALUE_SIZE_GUESS * this.valueNames.length;
+    }
+
+    /**
+     * @throws IllegalArgumentException If a tag is not closed or has no valid name
+     */
+    public static EmailTemplate compile(String id, int version, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> valueNames = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            boolean raw = source.startsWith("{", open + OPEN.length());
+            int nameStart = open + OPEN.length() + (raw ? 1 : 0);
+            int close = source.indexOf(raw ? "}" + CLOSE : CLOSE, nameStart);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at offset " + open + " of email template " + id + " v" + version);
+            }
+            String name = source.substring(nameStart, close).trim();
+            if (!name.matches("[A-Za-z0-9_.-]+")) {
+                throw new IllegalArgumentException("Invalid value name '" + name + "' at offset " + open
+                        + " of email template " + id + " v" + version);
+            }
+            literals.add(source.substring(position, open));
+            valueNames.add(name);
+            escaped.add(!raw);
+            position = close + CLOSE.length() + (raw ? 1 : 0);
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(id, version, literals, valueNames, escaped);
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        render(values, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the rendered template to the given buffer, so callers rendering many emails can reuse one.
+     */
+    public void render(Map<String, ?> values, StringBuilder out) {
+        int start = out.length();
+        for (int i = 0; i < valueNames.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(valueNames[i]);
+            if (value == null) {
+                continue;
+            }
+            CharSequence text = value instanceof CharSequence chars ? chars : value.toString();
+            if (escaped[i]) {
+                escapeHtml(text, out);
+            } else {
+                out.append(text);
+            }
+        }
+        out.append(literals[valueNames.length]);
+        int length = out.length() - start;
+        if (length > sizeHint) {
+            sizeHint = length;
+        }
+    }
+
+    /**
+     * Appends the text with &, <, >, " and ' escaped. Runs of characters that need no escaping are copied at once.
+     */
+    public static void escapeHtml(CharSequence text, StringBuilder out) {
+        int copyFrom = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, copyFrom, i).append(entity);
+                copyFrom = i + 1;
+            }
+        }
+        out.append(text, copyFrom, text.length());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The names of the template's values, in order of appearance (repeated if used more than once)
+     */
+    public List<String> getValueNames() {
+        return List.of(valueNames);
+    }
+
+    int getSizeHint() {
+        return sizeHint;
+    }
+}
@@ -0,0 +1,57 @@
+package com.gt.notification_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the HTML emails from classpath:templates/email/{id}.v{version}.html.
+ *
+ * Each template is read and compiled into an EmailTemplate on first use and then kept by ID and version, so
+ * rendering an email only appends its parts. A changed layout ships as a new version next to the old one.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateEngine.class);
+    private static final String LOCATION = "templates/email/";
+
+    private final Map<TemplateKey, EmailTemplate> templates = new ConcurrentHashMap<>();
+
+    public String render(String id, int version, Map<String, ?> values) {
+        return getTemplate(id, version).render(values);
+    }
+
+    /**
+     * @throws IllegalStateException If the template does not exist or cannot be compiled
+     */
+    public EmailTemplate getTemplate(String id, int version) {
+        return templates.computeIfAbsent(new TemplateKey(id, version), this::load);
+    }
+
+    private EmailTemplate load(TemplateKey key) {
+        if (!key.id().matches("[a-z0-9-]+")) {
+            throw new IllegalStateException("Invalid email template ID: " + key.id());
+        }
+        ClassPathResource resource = new ClassPathResource(LOCATION + key.id() + ".v" + key.version() + ".html");
+        try (InputStream in = resource.getInputStream()) {
+            EmailTemplate template = EmailTemplate.compile(key.id(), key.version(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            logger.info("Compiled email template {} v{} ({} values).", key.id(), key.version(), template.getValueNames().size());
+            return template;
+        } catch (IOException e) {
+            throw new IllegalStateException("Email template " + key.id() + " v" + key.version() + " not found at " + resource.getPath(), e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private record TemplateKey(String id, int version) {
+    }
+}
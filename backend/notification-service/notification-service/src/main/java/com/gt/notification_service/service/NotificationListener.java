@@ -1,5 +1,6 @@
 package com.gt.notification_service.service;
 
+import com.gt.notification_service.config.NotificationRetryPolicy;
 import com.gt.notification_service.dto.PassApprovedEvent;
 import com.gt.notification_service.dto.PassExpiredEvent;
 import com.gt.notification_service.dto.PassRejectedEvent;
@@ -7,17 +8,23 @@ import com.gt.notification_service.dto.PasswordResetEvent;
 import com.gt.notification_service.dto.UserCreatedEvent;
 import com.gt.notification_service.model.EmailAuditLog;
 import com.gt.notification_service.model.EmailStatus;
-import com.gt.notification_service.repository.EmailAuditLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.LinkedHashMap;
 import java.time.LocalDateTime;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 @Service
 public class NotificationListener {
@@ -25,28 +32,41 @@ public class NotificationListener {
     private static final Logger logger = LoggerFactory.getLogger(NotificationListener.class);
     // Formatter for a more friendly date and time display in the email
     private static final DateTimeFormatter FRIENDLY_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy 'at' h:mm a");
-
-    private final EmailAuditLogRepository emailAuditLogRepository;
+    private static final String USER_CREATED_TEMPLATE = "user-created";
+    private static final String PASSWORD_RESET_TEMPLATE = "password-reset";
+    private static final int TEMPLATE_VERSION = 1;
+    // Recipient roles recorded in NotificationRetryPolicy.DELIVERED_RECIPIENTS_HEADER
+    private static final String EMPLOYEE = "employee";
+    private static final String VISITOR = "visitor";
+    private static final String TENANT_ADMIN = "tenant-admin";
+
+    private final EmailAuditWriter emailAuditWriter;
     private final EmailSenderService emailSenderService;
+    private final EmailSendDispatcher emailSendDispatcher;
+    private final EmailTemplateEngine emailTemplateEngine;
 
-    public NotificationListener(EmailAuditLogRepository emailAuditLogRepository, EmailSenderService emailSenderService) {
-        this.emailAuditLogRepository = emailAuditLogRepository;
+    public NotificationListener(EmailAuditWriter emailAuditWriter, EmailSenderService emailSenderService,
+                                EmailSendDispatcher emailSendDispatcher, EmailTemplateEngine emailTemplateEngine) {
+        this.emailAuditWriter = emailAuditWriter;
         this.emailSenderService = emailSenderService;
+        this.emailSendDispatcher = emailSendDispatcher;
+        this.emailTemplateEngine = emailTemplateEngine;
     }
 
-    @RabbitListener(queues = "pass.approved.queue", errorHandler = "rabbitMQErrorHandler")
-    public void handlePassApproved(PassApprovedEvent event) {
+    @RabbitListener(queues = "pass.approved.queue", containerFactory = "approvedListenerFactory", errorHandler = "rabbitMQErrorHandler")
+    public CompletableFuture<Void> handlePassApproved(PassApprovedEvent event,
+                                                      @Header(name = NotificationRetryPolicy.DELIVERED_RECIPIENTS_HEADER, required = false) String delivered) {
         logger.info("Received PassApprovedEvent for pass ID: {}. Notifying employee and visitor.", event.getPassId());
 
         // --- Notification for the Employee (no change here) ---
         String employeeSubject = "Your Visitor Pass Request has been Approved!";
         String employeeBody = String.format("Hello,\n\nThe visitor pass for %s has been approved.\n\nThank you.", event.getVisitorName());
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), employeeSubject, employeeBody);
 
         // --- VVV THIS IS THE FIX: Detailed Notification for the Visitor VVV ---
+        String visitorSubject = "Your Visitor Pass is Confirmed!";
+        String visitorBody = null;
         if (event.getVisitorEmail() != null && !event.getVisitorEmail().isEmpty()) {
-            String visitorSubject = "Your Visitor Pass is Confirmed!";
-            String visitorBody = String.format(
+            visitorBody = String.format(
                 "Dear %s,\n\n" +
                 "Your visitor pass for your upcoming visit has been confirmed. Please find the details below:\n\n" +
                 "============================================\n" +
@@ -59,14 +79,25 @@ public class NotificationListener {
                 event.getPassCode(),
                 event.getVisitDateTime().format(FRIENDLY_FORMATTER) // Format for readability
             );
-            processEmailNotification(event.getPassId(), event.getVisitorEmail(), visitorSubject, visitorBody);
         } else {
             logger.warn("Visitor email was null or empty for pass ID: {}. Skipping visitor notification.", event.getPassId());
         }
+
+        String confirmedVisitorBody = visitorBody;
+        return emailSendDispatcher.dispatch(() -> {
+            Set<String> recipients = deliveredRecipients(delivered);
+            boolean sent = sendOnce(recipients, EMPLOYEE,
+                    () -> processEmailNotification(event.getPassId(), event.getEmployeeEmail(), employeeSubject, employeeBody));
+            if (confirmedVisitorBody != null) {
+                sent &= sendOnce(recipients, VISITOR,
+                        () -> processEmailNotification(event.getPassId(), event.getVisitorEmail(), visitorSubject, confirmedVisitorBody));
+            }
+            requireDelivered(sent, recipients, "PassApprovedEvent for pass ID " + event.getPassId());
+        });
     }
 
-    @RabbitListener(queues = "pass.rejected.queue", errorHandler = "rabbitMQErrorHandler")
-    public void handlePassRejected(PassRejectedEvent event) {
+    @RabbitListener(queues = "pass.rejected.queue", containerFactory = "rejectedListenerFactory", errorHandler = "rabbitMQErrorHandler")
+    public CompletableFuture<Void> handlePassRejected(PassRejectedEvent event) {
         logger.info("Received PassRejectedEvent for pass ID: {}", event.getPassId());
         String subject = "Update on Your Visitor Pass Request";
         String body = String.format(
@@ -74,11 +105,14 @@ public class NotificationListener {
                 event.getVisitorName(),
                 event.getRejectionReason()
         );
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body);
+        return emailSendDispatcher.dispatch(() ->
+                requireDelivered(processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body),
+                        Set.of(), "PassRejectedEvent for pass ID " + event.getPassId()));
     }
 
-    @RabbitListener(queues = "pass.expired.queue", errorHandler = "rabbitMQErrorHandler")
-    public void handlePassExpired(PassExpiredEvent event) {
+    @RabbitListener(queues = "pass.expired.queue", containerFactory = "expiredListenerFactory", errorHandler = "rabbitMQErrorHandler")
+    public CompletableFuture<Void> handlePassExpired(PassExpiredEvent event,
+                                                     @Header(name = NotificationRetryPolicy.DELIVERED_RECIPIENTS_HEADER, required = false) String delivered) {
         logger.info("Received PassExpiredEvent for pass ID: {}", event.getPassId());
         String subject = "Visitor Pass Expired: " + event.getVisitorName();
         String body = String.format(
@@ -86,82 +120,92 @@ public class NotificationListener {
                 event.getVisitorName(),
                 event.getVisitDateTime().toLocalDate().toString()
         );
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body);
-        if (event.getTenantAdminEmail() != null && !event.getTenantAdminEmail().isEmpty()) {
-            processEmailNotification(event.getPassId(), event.getTenantAdminEmail(), subject, body);
+        return emailSendDispatcher.dispatch(() -> {
+            Set<String> recipients = deliveredRecipients(delivered);
+            boolean sent = sendOnce(recipients, EMPLOYEE,
+                    () -> processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body));
+            if (event.getTenantAdminEmail() != null && !event.getTenantAdminEmail().isEmpty()) {
+                sent &= sendOnce(recipients, TENANT_ADMIN,
+                        () -> processEmailNotification(event.getPassId(), event.getTenantAdminEmail(), subject, body));
+            }
+            requireDelivered(sent, recipients, "PassExpiredEvent for pass ID " + event.getPassId());
+        });
+    }
+
+    @RabbitListener(queues = "user.created.queue", containerFactory = "userCreatedListenerFactory", errorHandler = "rabbitMQErrorHandler")
+    public CompletableFuture<Void> handleUserCreated(UserCreatedEvent event) {
+        logger.info("Received UserCreatedEvent for new user: {}", event.getNewUserEmail());
+        String subject = "Welcome to the Visitor Pass Management System!";
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("userName", event.getNewUserName());
+        values.put("email", event.getNewUserEmail());
+        values.put("role", event.getNewUserRole() != null ? event.getNewUserRole().replace("ROLE_", "") : null);
+        values.put("tenantName", event.getTenantName());
+        values.put("createdBy", event.getCreatedByAdminName());
+        values.put("loginUrl", event.getLoginUrl());
+        values.put("year", Year.now().getValue());
+        String body = emailTemplateEngine.render(USER_CREATED_TEMPLATE, TEMPLATE_VERSION, values);
+
+        return emailSendDispatcher.dispatch(() -> requireDelivered(
+                processEmailNotification(null, event.getNewUserEmail(), subject, body), Set.of(), "UserCreatedEvent"));
+    }
+
+    @RabbitListener(queues = "password.reset.queue", containerFactory = "passwordResetListenerFactory", errorHandler = "rabbitMQErrorHandler")
+    public CompletableFuture<Void> handlePasswordReset(PasswordResetEvent event) {
+        logger.info("Received PasswordResetEvent for user: {}", event.getUserEmail());
+        String subject = "Your Password Reset Request";
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("userName", event.getUserName());
+        values.put("email", event.getUserEmail());
+        values.put("resetUrl", event.getResetUrl());
+        values.put("year", Year.now().getValue());
+        String body = emailTemplateEngine.render(PASSWORD_RESET_TEMPLATE, TEMPLATE_VERSION, values);
+
+        return emailSendDispatcher.dispatch(() -> requireDelivered(
+                processEmailNotification(null, event.getUserEmail(), subject, body), Set.of(), "PasswordResetEvent"));
+    }
+
+    /**
+     * Fails the message if any of its emails was not sent, so RabbitMQErrorHandler schedules a retry. The retry
+     * carries the recipients that were already emailed, and only the others are sent to again.
+     * @param deliveredRecipients The recipient roles whose email went out, on this or an earlier attempt
+     */
+    private void requireDelivered(boolean delivered, Set<String> deliveredRecipients, String notification) {
+        if (!delivered) {
+            throw new PartialDeliveryException("Not all emails of " + notification + " could be sent.", deliveredRecipients);
         }
     }
 
-    // Inside NotificationListener.java
-
-@RabbitListener(queues = "user.created.queue", errorHandler = "rabbitMQErrorHandler")
-public void handleUserCreated(UserCreatedEvent event) {
-    logger.info("Received UserCreatedEvent for new user: {}", event.getNewUserEmail());
-    String subject = "Welcome to the Visitor Pass Management System!";
-
-    // VVV --- THIS IS THE CORRECTED MAP --- VVV
-    Map<String, String> details = new LinkedHashMap<>();
-    details.put("Username / Email", "<strong>" + event.getNewUserEmail() + "</strong>");
-    details.put("Assigned Role", event.getNewUserRole().replace("ROLE_", ""));
-    details.put("Location", event.getTenantName());
-    // This line ensures the 'Created By' field is added to the email
-    details.put("Account Created By", event.getCreatedByAdminName());
-    details.put("Login Page", "<a href='" + event.getLoginUrl() + "' style='color: #0d6efd;'>Click here to log in</a>");
-
-    // The outro message also uses the admin's name
-    String outro = "<strong>Important Next Steps:</strong> Please obtain your temporary password directly from the administrator who created your account (" + event.getCreatedByAdminName() + "). For security, we strongly recommend you change your password after your first login.";
-
-    String body = createHtmlEmailTemplate(
-        "Your Account is Ready!",
-        "Welcome, " + event.getNewUserName() + "!",
-        "An account has been created for you in the Visitor Pass Management System. You can now access the platform using your email address.",
-        details,
-        outro
-    );
-
-    processEmailNotification(null, event.getNewUserEmail(), subject, body);
-}
+    /**
+     * Sends the recipient's email unless an earlier attempt of the message already did.
+     * @return true if the email was sent, now or before
+     */
+    private boolean sendOnce(Set<String> deliveredRecipients, String recipient, BooleanSupplier send) {
+        if (deliveredRecipients.contains(recipient)) {
+            logger.info("Skipping the {} email; it was sent on an earlier attempt.", recipient);
+            return true;
+        }
+        if (send.getAsBoolean()) {
+            deliveredRecipients.add(recipient);
+            return true;
+        }
+        return false;
+    }
 
-   // Inside NotificationListener.java
-
-@RabbitListener(queues = "password.reset.queue", errorHandler = "rabbitMQErrorHandler")
-public void handlePasswordReset(PasswordResetEvent event) {
-    logger.info("Received PasswordResetEvent for user: {}", event.getUserEmail());
-    String subject = "Your Password Reset Request";
-
-    // VVV --- THIS IS THE UPGRADED HTML TEMPLATE LOGIC --- VVV
-    
-    // 1. Create a visually appealing HTML button for the main action.
-    String actionButton = "<a href='" + event.getResetUrl() + "' " +
-                          "style='background-color: #0d6efd; color: white; padding: 12px 25px; " +
-                          "text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;'>" +
-                          "Reset Your Password</a>";
-
-    // 2. Build the different parts of the email content.
-    String intro = "We received a request to reset the password for your account associated with the email: " +
-                   "<strong>" + event.getUserEmail() + "</strong>. " +
-                   "Please click the button below to set a new password.";
-    
-    // This section will contain the button and a security disclaimer.
-    String detailsSection = "<div style='text-align: center; margin: 30px 0;'>" + actionButton + "</div>" +
-                            "<p style='font-size: 12px; color: #888; text-align: center;'>" +
-                            "This link is valid for 15 minutes for security reasons. If you did not request a password reset, " +
-                            "please ignore this email. Your account remains secure.</p>";
-
-    // 3. Call our reusable template builder.
-    String body = createHtmlEmailTemplate(
-        "Password Reset Request",
-        "Hello " + event.getUserName() + ",",
-        intro, 
-        // We are not using the key-value table for this email, so we pass an empty map.
-        java.util.Collections.emptyMap(), 
-        detailsSection
-    );
-
-    processEmailNotification(null, event.getUserEmail(), subject, body);
-}
+    private static Set<String> deliveredRecipients(String header) {
+        Set<String> recipients = new HashSet<>();
+        if (header != null && !header.isBlank()) {
+            recipients.addAll(Arrays.asList(header.split(",")));
+        }
+        return recipients;
+    }
 
-    private void processEmailNotification(Long passId, String recipientAddress, String subject, String body) {
+    /**
+     * @return true if the email was sent
+     */
+    private boolean processEmailNotification(Long passId, String recipientAddress, String subject, String body) {
         EmailAuditLog auditLog = new EmailAuditLog();
         auditLog.setCorrelationId(UUID.randomUUID().toString());
         auditLog.setAssociatedPassId(passId);
@@ -170,60 +214,24 @@ public void handlePasswordReset(PasswordResetEvent event) {
         auditLog.setBody(body);
         auditLog.setStatus(EmailStatus.PENDING);
         auditLog.setCreatedAt(LocalDateTime.now());
-        EmailAuditLog savedLog = emailAuditLogRepository.save(auditLog);
+        emailAuditWriter.recordPending(auditLog);
 
         try {
             boolean wasSent = emailSenderService.sendEmail(recipientAddress, subject, body);
             if (wasSent) {
-                savedLog.setStatus(EmailStatus.SENT);
+                auditLog.setStatus(EmailStatus.SENT);
             } else {
-                savedLog.setStatus(EmailStatus.FAILED);
-                savedLog.setFailureReason("Email provider (SMTP) failed to send the message.");
+                auditLog.setStatus(EmailStatus.FAILED);
+                auditLog.setFailureReason("Email provider (SMTP) failed to send the message.");
             }
         } catch (Exception e) {
             logger.error("An exception occurred while sending email for pass ID: {}. Error: {}", passId, e.getMessage());
-            savedLog.setStatus(EmailStatus.FAILED);
-            savedLog.setFailureReason(e.getMessage());
+            auditLog.setStatus(EmailStatus.FAILED);
+            auditLog.setFailureReason(e.getMessage());
         }
 
-        savedLog.setProcessedAt(LocalDateTime.now());
-        emailAuditLogRepository.save(savedLog);
-    }
-
-    private String createHtmlEmailTemplate(String title, String heading, String intro, Map<String, String> details, String outro) {
-    StringBuilder detailsHtml = new StringBuilder();
-    if (details != null && !details.isEmpty()) {
-        details.forEach((key, value) -> {
-            detailsHtml.append("<tr><td style='padding: 8px; border-bottom: 1px solid #ddd; background-color: #f9f9f9;'><strong>")
-                       .append(key)
-                       .append(":</strong></td><td style='padding: 8px; border-bottom: 1px solid #ddd;'>")
-                       .append(value)
-                       .append("</td></tr>");
-        });
+        auditLog.setProcessedAt(LocalDateTime.now());
+        emailAuditWriter.recordOutcome(auditLog);
+        return auditLog.getStatus() == EmailStatus.SENT;
     }
-
-    String detailsTable = "";
-    if (detailsHtml.length() > 0) {
-        detailsTable = "<table style='width: 100%; border-collapse: collapse; margin: 20px 0;'>" + detailsHtml.toString() + "</table>";
-    }
-
-    return "<!DOCTYPE html>" +
-           "<html><head><style>" +
-           "body{font-family: Arial, sans-serif; color: #333;}" +
-           ".container{max-width: 600px; margin: 20px auto; padding: 20px; border: 1px solid #ddd; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1);}" +
-           ".header{background-color: #003366; color: white; padding: 10px 20px; text-align: center; border-radius: 8px 8px 0 0;}" +
-           ".content{padding: 20px;}" +
-           ".footer{text-align: center; font-size: 12px; color: #888; margin-top: 20px;}" +
-           "</style></head><body>" +
-           "<div class='container'>" +
-           "<div class='header'><h2>" + title + "</h2></div>" +
-           "<div class='content'>" +
-           "<p><b>" + heading + "</b></p>" +
-           "<p>" + intro + "</p>" +
-           detailsTable + // <-- Use the generated table
-           "<p>" + outro + "</p>" +
-           "</div>" +
-           "<div class='footer'><p>&copy; " + java.time.Year.now().getValue() + " Visitor Pass System</p></div>" +
-           "</div></body></html>";
 }
-}
\ No newline at end of file
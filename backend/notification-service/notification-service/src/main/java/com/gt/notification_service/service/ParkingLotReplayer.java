@@ -0,0 +1,142 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.config.NotificationRetryPolicy;
+import com.gt.notification_service.config.RabbitMQConfig;
+import com.gt.notification_service.dto.ParkingLotStatus;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves parked notification messages back to their queue at a bounded rate, with a fresh set of attempts.
+ *
+ * Each message is taken from the parking lot, republished to its queue without its retry headers and only then
+ * acked, so a replay interrupted midway leaves no message behind (at worst one is delivered twice). Replays run
+ * one after the other on a "parking-lot-replay" thread; at most one per queue is pending or running.
+ */
+@Service
+public class ParkingLotReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingLotReplayer.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final int maxRatePerSecond;
+    private final Set<String> replaying = ConcurrentHashMap.newKeySet();
+    private final ExecutorService replayer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "parking-lot-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ParkingLotReplayer(RabbitTemplate rabbitTemplate,
+                              AmqpAdmin amqpAdmin,
+                              @Value("${app.notifications.replay.max-rate-per-second:50}") int maxRatePerSecond) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.maxRatePerSecond = maxRatePerSecond;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayer.shutdownNow();
+    }
+
+    public List<ParkingLotStatus> getStatus() {
+        return RabbitMQConfig.NOTIFICATION_QUEUES.stream().map(this::status).toList();
+    }
+
+    /**
+     * Starts replaying up to maxMessages parked messages of the queue, ratePerSecond at a time.
+     * @return The parking lot as it is when the replay is scheduled
+     */
+    public ParkingLotStatus replay(String queue, int maxMessages, int ratePerSecond) {
+        if (!RabbitMQConfig.NOTIFICATION_QUEUES.contains(queue)) {
+            throw new IllegalArgumentException("Unknown notification queue: " + queue);
+        }
+        if (maxMessages < 1) {
+            throw new IllegalArgumentException("'maxMessages' must be at least 1.");
+        }
+        if (ratePerSecond < 1 || ratePerSecond > maxRatePerSecond) {
+            throw new IllegalArgumentException("'ratePerSecond' must be between 1 and " + maxRatePerSecond + ".");
+        }
+        if (!replaying.add(queue)) {
+            throw new IllegalStateException("A replay of " + queue + " is already scheduled or running.");
+        }
+        replayer.execute(() -> {
+            try {
+                run(queue, maxMessages, ratePerSecond);
+            } finally {
+                replaying.remove(queue);
+            }
+        });
+        return status(queue);
+    }
+
+    private void run(String queue, int maxMessages, int ratePerSecond) {
+        long intervalMs = 1_000L / ratePerSecond;
+        int replayed = 0;
+        try {
+            while (replayed < maxMessages) {
+                long startedAt = System.currentTimeMillis();
+                Boolean moved = rabbitTemplate.execute(channel -> moveOne(channel, queue));
+                if (!Boolean.TRUE.equals(moved)) {
+                    break;
+                }
+                replayed++;
+                long wait = intervalMs - (System.currentTimeMillis() - startedAt);
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Replay of parked messages into {} stopped after {} messages: {}", queue, replayed, e.getMessage());
+            return;
+        }
+        logger.info("Replayed {} parked messages into {}.", replayed, queue);
+    }
+
+    /**
+     * @return false if the parking lot is empty
+     */
+    private boolean moveOne(Channel channel, String queue) throws IOException {
+        GetResponse parked = channel.basicGet(NotificationRetryPolicy.parkingLotName(queue), false);
+        if (parked == null) {
+            return false;
+        }
+        Map<String, Object> headers = parked.getProps().getHeaders() != null
+                ? new HashMap<>(parked.getProps().getHeaders())
+                : new HashMap<>();
+        headers.remove(NotificationRetryPolicy.ATTEMPTS_HEADER);
+        headers.remove(NotificationRetryPolicy.ORIGINAL_QUEUE_HEADER);
+        headers.remove(NotificationRetryPolicy.PARKED_REASON_HEADER);
+        headers.remove("x-death");
+        channel.basicPublish("", queue, parked.getProps().builder().headers(headers).build(), parked.getBody());
+        channel.basicAck(parked.getEnvelope().getDeliveryTag(), false);
+        return true;
+    }
+
+    private ParkingLotStatus status(String queue) {
+        String parkingLot = NotificationRetryPolicy.parkingLotName(queue);
+        QueueInformation info = amqpAdmin.getQueueInfo(parkingLot);
+        return new ParkingLotStatus(queue, parkingLot, info != null ? info.getMessageCount() : 0L, replaying.contains(queue));
+    }
+}
@@ -0,0 +1,24 @@
+package com.gt.notification_service.service;
+
+import java.util.Set;
+
+/**
+ * Thrown by NotificationListener when not all emails of a message were sent. Carries the recipients that did get
+ * theirs, which RabbitMQErrorHandler records on the retried message so they are not emailed again.
+ */
+public class PartialDeliveryException extends IllegalStateException {
+
+    private final Set<String> deliveredRecipients;
+
+    public PartialDeliveryException(String message, Set<String> deliveredRecipients) {
+        super(message);
+        this.deliveredRecipients = Set.copyOf(deliveredRecipients);
+    }
+
+    /**
+     * @return The recipient roles (e.g. "employee") whose email went out, on this or an earlier attempt
+     */
+    public Set<String> getDeliveredRecipients() {
+        return deliveredRecipients;
+    }
+}
@@ -0,0 +1,249 @@
+package com.gt.notification_service.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps SMTP connections open between sends, so an email costs a MAIL/RCPT/DATA exchange instead of a new
+ * TCP + STARTTLS + AUTH session.
+ *
+ * At most app.mail.pool.max-connections connections exist; a borrower waits up to app.mail.pool.borrow-timeout-ms
+ * for one. Idle connections are reused most-recently-used first. A connection idle for longer than
+ * app.mail.pool.validate-after-idle-ms is checked with a NOOP before reuse, and one idle for longer than
+ * app.mail.pool.idle-timeout-ms is closed (by a "smtp-pool-evictor" thread as well), since providers drop idle
+ * sessions. After app.mail.pool.max-messages-per-connection messages, or any connection-level failure, the
+ * connection is closed instead of returned. Only applies to a JavaMailSenderImpl; otherwise isEnabled is false.
+ */
+@Service
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    public SmtpTransportPool(JavaMailSender javaMailSender,
+                             @Value("${app.mail.pool.max-connections:4}") int maxConnections,
+                             @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${app.mail.pool.validate-after-idle-ms:5000}") long validateAfterIdleMs,
+                             @Value("${app.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = javaMailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(maxConnections, true);
+        long evictEveryMs = Math.max(1_000L, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictEveryMs, evictEveryMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    public boolean isEnabled() {
+        return mailSender != null;
+    }
+
+    /**
+     * @return A connected transport; hand it back with release
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection became free within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled;
+                }
+                pooled.closeQuietly();
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(PooledTransport pooled) {
+        try {
+            if (closed || !pooled.isReusable()) {
+                pooled.closeQuietly();
+            } else {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    int getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        // Resolved as JavaMailSenderImpl does: its own setting, then the session's, then "smtp"
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.incrementAndGet();
+        return new PooledTransport(transport);
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.lastUsedAt;
+        if (idleFor >= idleTimeoutMs) {
+            return false;
+        }
+        // SMTPTransport.isConnected sends a NOOP
+        return idleFor < validateAfterIdleMs || pooled.transport.isConnected();
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        idle.removeIf(pooled -> {
+            if (now - pooled.lastUsedAt < idleTimeoutMs) {
+                return false;
+            }
+            pooled.closeQuietly();
+            return true;
+        });
+    }
+
+    /**
+     * One pooled SMTP connection, used by one thread at a time between borrow and release.
+     */
+    public class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private boolean broken;
+        private boolean contentSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Sends one message over this connection, as JavaMailSenderImpl would (keeping a preset Message-ID).
+         * A failure other than rejected recipients marks the connection broken. Sends a copy of the message that
+         * notes when the server asked for its content, i.e. accepted DATA (see mayHaveBeenDelivered).
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                message.setHeader("Message-ID", messageId);
+            }
+            ContentTrackingMessage tracked = new ContentTrackingMessage(message);
+            try {
+                transport.sendMessage(tracked, tracked.getAllRecipients());
+                messagesSent++;
+            } catch (MessagingException e) {
+                contentSent = tracked.contentWritten;
+                broken = !(e instanceof SendFailedException) || !transport.isConnected();
+                throw e;
+            }
+        }
+
+        /**
+         * @return false once the connection is broken or has carried its maximum number of messages
+         */
+        public boolean isReusable() {
+            return !broken && messagesSent < maxMessagesPerConnection;
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        /**
+         * @return true if the last failed send got as far as the message content, so the server may have accepted
+         * it (e.g. the reply after DATA was lost to a timeout or a dropped connection) and a resend could duplicate it
+         */
+        public boolean mayHaveBeenDelivered() {
+            return contentSent;
+        }
+
+        private void closeQuietly() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Ignoring failure to close an SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A copy of a message that records whether the transport wrote its content, which SMTPTransport only does
+     * once the server has answered DATA with 354.
+     */
+    private static class ContentTrackingMessage extends MimeMessage {
+
+        private boolean contentWritten;
+
+        ContentTrackingMessage(MimeMessage source) throws MessagingException {
+            super(source);
+        }
+
+        @Override
+        public void writeTo(OutputStream os, String[] ignoreList) throws IOException, MessagingException {
+            contentWritten = true;
+            super.writeTo(os, ignoreList);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gt.notification_service.config;
+
+import com.gt.notification_service.service.PartialDeliveryException;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitMQErrorHandlerTest {
+
+    @Mock
+    private Channel channel;
+
+    private final NotificationRetryPolicy retryPolicy = new NotificationRetryPolicy(5, 5_000L, 4, 600_000L);
+    private final RabbitMQErrorHandler errorHandler = new RabbitMQErrorHandler(retryPolicy);
+
+    @Test
+    void retryPolicy_shouldBackOffExponentiallyUpToTheMaximum() {
+        assertEquals(List.of(5_000L, 20_000L, 80_000L, 320_000L), retryPolicy.delays());
+        assertEquals(600_000L, new NotificationRetryPolicy(10, 5_000L, 4, 600_000L).delayAfterAttempt(9));
+    }
+
+    @Test
+    void handleError_firstFailure_shouldMoveTheMessageToTheFirstRetryQueue() throws Exception {
+        // --- ARRANGE ---
+        Message message = message(null);
+
+        // --- ACT ---
+        Object result = errorHandler.handleError(message, channel, null, failure(new IllegalStateException("SMTP down")));
+
+        // --- ASSERT ---
+        assertNull(result);
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(""), eq("pass.expired.queue.retry.5000"), properties.capture(), eq(message.getBody()));
+        assertEquals(1, properties.getValue().getHeaders().get(NotificationRetryPolicy.ATTEMPTS_HEADER));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleError_partialDelivery_shouldRecordTheEmailedRecipientsOnTheRetry() throws Exception {
+        // --- ARRANGE ---
+        Message message = message(1);
+        PartialDeliveryException partial = new PartialDeliveryException("Not all emails could be sent.", Set.of("employee"));
+
+        // --- ACT ---
+        errorHandler.handleError(message, channel, null, failure(new CompletionException(partial)));
+
+        // --- ASSERT ---
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(""), eq("pass.expired.queue.retry.20000"), properties.capture(), eq(message.getBody()));
+        assertEquals("employee", properties.getValue().getHeaders().get(NotificationRetryPolicy.DELIVERED_RECIPIENTS_HEADER).toString());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleError_lastAttempt_shouldParkTheMessage() throws Exception {
+        // --- ARRANGE ---
+        Message message = message(4);
+
+        // --- ACT ---
+        errorHandler.handleError(message, channel, null, failure(new IllegalStateException("SMTP down")));
+
+        // --- ASSERT ---
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(""), eq("pass.expired.queue.parking-lot"), properties.capture(), any());
+        assertEquals(5, properties.getValue().getHeaders().get(NotificationRetryPolicy.ATTEMPTS_HEADER));
+        assertEquals("pass.expired.queue", properties.getValue().getHeaders().get(NotificationRetryPolicy.ORIGINAL_QUEUE_HEADER).toString());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleError_unreadableMessage_shouldBeParkedWithoutRetries() throws Exception {
+        // --- ACT ---
+        errorHandler.handleError(message(null), channel, null, failure(new MessageConversionException("Unrecognized field")));
+
+        // --- ASSERT ---
+        verify(channel).basicPublish(eq(""), eq("pass.expired.queue.parking-lot"), any(), any());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleError_whenTheRepublishFails_shouldRequeueTheMessage() throws Exception {
+        // --- ARRANGE ---
+        doThrow(new IOException("channel closed")).when(channel).basicPublish(anyString(), anyString(), any(), any());
+
+        // --- ACT ---
+        errorHandler.handleError(message(null), channel, null, failure(new IllegalStateException("SMTP down")));
+
+        // --- ASSERT ---
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel).basicNack(7L, false, true);
+    }
+
+    private Message message(Integer attempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(RabbitMQConfig.QUEUE_EXPIRED_NAME);
+        properties.setDeliveryTag(7L);
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        if (attempts != null) {
+            properties.setHeader(NotificationRetryPolicy.ATTEMPTS_HEADER, attempts);
+        }
+        return new Message("{\"passId\":1}".getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private ListenerExecutionFailedException failure(Throwable cause) {
+        return new ListenerExecutionFailedException("Listener failed", cause);
+    }
+}
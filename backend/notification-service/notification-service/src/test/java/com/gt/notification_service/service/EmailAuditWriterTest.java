@@ -0,0 +1,103 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.model.EmailAuditLog;
+import com.gt.notification_service.model.EmailStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailAuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void coalesce_shouldFoldAnOutcomeIntoItsInsertWhenBothAreInTheBatch() {
+        // --- ARRANGE ---
+        EmailAuditWriter.AuditWrite pendingA = pending("a");
+        EmailAuditWriter.AuditWrite outcomeA = outcome("a", EmailStatus.SENT);
+        EmailAuditWriter.AuditWrite outcomeOfEarlierRow = outcome("b", EmailStatus.FAILED);
+        EmailAuditWriter.AuditWrite pendingC = pending("c");
+        List<EmailAuditWriter.AuditWrite> inserts = new ArrayList<>();
+        List<EmailAuditWriter.AuditWrite> updates = new ArrayList<>();
+
+        // --- ACT ---
+        EmailAuditWriter.coalesce(List.of(pendingA, outcomeOfEarlierRow, pendingC, outcomeA), inserts, updates);
+
+        // --- ASSERT ---
+        assertEquals(List.of("a", "c"), inserts.stream().map(EmailAuditWriter.AuditWrite::correlationId).toList());
+        assertEquals(EmailStatus.SENT, inserts.get(0).status());
+        assertEquals(pendingA.subject(), inserts.get(0).subject());
+        assertNotNull(inserts.get(0).processedAt());
+        assertEquals(EmailStatus.PENDING, inserts.get(1).status());
+        assertEquals(List.of(outcomeOfEarlierRow), updates);
+    }
+
+    @Test
+    void shutdown_shouldWriteEveryQueuedRecordAsBatches() {
+        // --- ARRANGE ---
+        Set<String> inserted = ConcurrentHashMap.newKeySet();
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<EmailAuditWriter.AuditWrite> rows = invocation.getArgument(1);
+                    for (EmailAuditWriter.AuditWrite row : rows) {
+                        if (EmailAuditWriter.INSERT_SQL.equals(invocation.getArgument(0))) {
+                            assertTrue(inserted.add(row.correlationId()), "Row inserted twice");
+                        } else {
+                            assertTrue(inserted.contains(row.correlationId()), "Outcome written before its row");
+                        }
+                        if (row.status() == EmailStatus.SENT) {
+                            completed.add(row.correlationId());
+                        }
+                    }
+                    return new int[0][];
+                });
+        EmailAuditWriter writer = new EmailAuditWriter(jdbcTemplate, transactionManager, 100, 50, 10L, 10_000L);
+
+        // --- ACT ---
+        for (int i = 0; i < 1_000; i++) {
+            EmailAuditLog log = new EmailAuditLog();
+            log.setCorrelationId("id-" + i);
+            log.setStatus(EmailStatus.PENDING);
+            log.setCreatedAt(LocalDateTime.now());
+            writer.recordPending(log);
+            log.setStatus(EmailStatus.SENT);
+            log.setProcessedAt(LocalDateTime.now());
+            writer.recordOutcome(log);
+        }
+        writer.shutdown();
+
+        // --- ASSERT ---
+        assertEquals(1_000, inserted.size());
+        assertEquals(1_000, completed.size());
+    }
+
+    private EmailAuditWriter.AuditWrite pending(String correlationId) {
+        return new EmailAuditWriter.AuditWrite(true, correlationId, 1L, "to@example.com", "Subject " + correlationId,
+                "Body", EmailStatus.PENDING, null, LocalDateTime.now(), null);
+    }
+
+    private EmailAuditWriter.AuditWrite outcome(String correlationId, EmailStatus status) {
+        return new EmailAuditWriter.AuditWrite(false, correlationId, null, null, null, null, status,
+                status == EmailStatus.FAILED ? "SMTP down" : null, null, LocalDateTime.now());
+    }
+}
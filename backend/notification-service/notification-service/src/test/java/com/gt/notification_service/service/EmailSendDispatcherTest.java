@@ -0,0 +1,70 @@
+package com.gt.notification_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailSendDispatcherTest {
+
+    @Test
+    void dispatch_whenAsyncIsOff_shouldSendOnTheCallingThread() {
+        // --- ARRANGE ---
+        EmailSendDispatcher dispatcher = new EmailSendDispatcher(false, 1, 1_000L);
+        AtomicReference<Thread> sender = new AtomicReference<>();
+
+        // --- ACT ---
+        CompletableFuture<Void> sent = dispatcher.dispatch(() -> sender.set(Thread.currentThread()));
+        CompletableFuture<Void> failed = dispatcher.dispatch(() -> {
+            throw new IllegalStateException("SMTP down");
+        });
+
+        // --- ASSERT ---
+        assertTrue(sent.isDone());
+        assertSame(Thread.currentThread(), sender.get());
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    void dispatch_whenAsyncIsOn_shouldCompleteAfterTheSendAndBoundTheSendsInFlight() throws Exception {
+        // --- ARRANGE ---
+        EmailSendDispatcher dispatcher = new EmailSendDispatcher(true, 2, 1_000L);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        Runnable slowSend = () -> {
+            sender.set(Thread.currentThread());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            // --- ACT ---
+            CompletableFuture<Void> first = dispatcher.dispatch(slowSend);
+            CompletableFuture<Void> second = dispatcher.dispatch(slowSend);
+            CompletableFuture<CompletableFuture<Void>> third = CompletableFuture.supplyAsync(() -> dispatcher.dispatch(() -> { }));
+            Thread.sleep(100L);
+
+            // --- ASSERT ---
+            assertFalse(first.isDone());
+            assertFalse(second.isDone());
+            assertFalse(third.isDone(), "A third send must wait for a free slot");
+            assertEquals(0, dispatcher.availableSlots());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            third.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+            assertTrue(sender.get().isVirtual());
+        } finally {
+            release.countDown();
+            dispatcher.shutdown();
+        }
+    }
+}
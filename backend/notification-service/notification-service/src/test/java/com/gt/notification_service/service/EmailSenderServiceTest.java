@@ -0,0 +1,112 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.support.LocalSmtpServer;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends through SmtpTransportPool against a local SMTP stand-in.
+ */
+class EmailSenderServiceTest {
+
+    private LocalSmtpServer server;
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    void sendEmail_shouldReuseOneConnectionAcrossEmails() throws Exception {
+        // --- ARRANGE ---
+        EmailSenderService sender = start(0, 100);
+
+        // --- ACT ---
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sender.sendEmail("visitor" + i + "@example.com", "Subject " + i, "<p>Body</p>"));
+        }
+
+        // --- ASSERT ---
+        assertEquals(10, server.getMessages());
+        assertEquals(1, server.getSessions());
+        assertEquals(1, pool.getConnectionsOpened());
+    }
+
+    @Test
+    void sendBatch_shouldRotateConnectionsAtTheMessageLimit() throws Exception {
+        // --- ARRANGE ---
+        EmailSenderService sender = start(0, 10);
+
+        // --- ACT ---
+        List<Boolean> sent = sender.sendBatch(messages(sender, 25));
+
+        // --- ASSERT ---
+        assertEquals(25, sent.size());
+        assertFalse(sent.contains(false));
+        assertEquals(25, server.getMessages());
+        assertEquals(3, server.getSessions());
+    }
+
+    @Test
+    void sendBatch_shouldResendOnAFreshConnectionWhenTheServerDropsOne() throws Exception {
+        // --- ARRANGE ---
+        server = new LocalSmtpServer(0, 3);
+        EmailSenderService sender = start(server, 100);
+
+        // --- ACT ---
+        List<Boolean> sent = sender.sendBatch(messages(sender, 7));
+
+        // --- ASSERT ---
+        assertFalse(sent.contains(false));
+        assertEquals(7, server.getMessages());
+        assertEquals(3, server.getSessions());
+    }
+
+    @Test
+    void sendBatch_whenTheConnectionDropsAfterData_shouldNotResendThatMessage() throws Exception {
+        // --- ARRANGE ---
+        EmailSenderService sender = start(0, 100);
+        List<MimeMessage> messages = messages(sender, 3);
+        assertTrue(sender.sendBatch(messages.subList(0, 1)).get(0));
+        server.dropNextMessageAfterData();
+
+        // --- ACT ---
+        List<Boolean> sent = sender.sendBatch(messages.subList(1, 3));
+
+        // --- ASSERT ---
+        assertEquals(List.of(false, true), sent);
+        assertEquals(3, server.getMessages()); // the dropped one was received once, and not sent again
+        assertEquals(2, server.getSessions());
+    }
+
+    private EmailSenderService start(long sessionSetupMs, int maxMessagesPerConnection) throws Exception {
+        server = new LocalSmtpServer(sessionSetupMs, 0);
+        return start(server, maxMessagesPerConnection);
+    }
+
+    private EmailSenderService start(LocalSmtpServer smtpServer, int maxMessagesPerConnection) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        pool = new SmtpTransportPool(mailSender, 2, maxMessagesPerConnection, 60_000L, 5_000L, 1_000L);
+        return new EmailSenderService(mailSender, pool, "noreply@example.com");
+    }
+
+    private List<MimeMessage> messages(EmailSenderService sender, int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(sender.createMessage("visitor" + i + "@example.com", "Subject " + i, "<p>Body " + i + "</p>"));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gt.notification_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    @Test
+    void render_shouldEscapeValuesAndLeaveRawValuesAndMissingValues() {
+        // --- ARRANGE ---
+        EmailTemplate template = EmailTemplate.compile("test", 1,
+                "<p>Hello {{ name }}</p><a href='{{url}}'>{{{link}}}</a>{{missing}}!");
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", "Tom & \"Jerry\" <script>");
+        values.put("url", "https://example.com/?a=1&b='2'");
+        values.put("link", "<b>log in</b>");
+
+        // --- ACT ---
+        String html = template.render(values);
+
+        // --- ASSERT ---
+        assertEquals("<p>Hello Tom &amp; &quot;Jerry&quot; &lt;script&gt;</p>"
+                + "<a href='https://example.com/?a=1&amp;b=&#39;2&#39;'><b>log in</b></a>!", html);
+        assertEquals(List.of("name", "url", "link", "missing"), template.getValueNames());
+    }
+
+    @Test
+    void render_shouldAppendToTheGivenBufferAndRaiseTheSizeHint() {
+        // --- ARRANGE ---
+        EmailTemplate template = EmailTemplate.compile("test", 1, "<p>{{text}}</p>");
+        StringBuilder buffer = new StringBuilder("before:");
+        String longText = "x".repeat(500);
+
+        // --- ACT ---
+        template.render(Map.of("text", longText), buffer);
+
+        // --- ASSERT ---
+        assertEquals("before:<p>" + longText + "</p>", buffer.toString());
+        assertEquals(longText.length() + 7, template.getSizeHint());
+    }
+
+    @Test
+    void compile_shouldRejectUnclosedOrUnnamedTags() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", 1, "<p>{{name</p>"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", 1, "<p>{{{name}}</p>"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", 1, "<p>{{ }}</p>"));
+    }
+
+    @Test
+    void getTemplate_shouldCompileEachTemplateOnceAndFailForUnknownOnes() {
+        // --- ARRANGE ---
+        EmailTemplateEngine engine = new EmailTemplateEngine();
+
+        // --- ACT ---
+        EmailTemplate first = engine.getTemplate("user-created", 1);
+        EmailTemplate second = engine.getTemplate("user-created", 1);
+        String html = engine.render("password-reset", 1, Map.of("userName", "Ann", "resetUrl", "https://app/reset?token=a&b"));
+
+        // --- ASSERT ---
+        assertSame(first, second);
+        assertTrue(html.contains("<b>Hello Ann,</b>"));
+        assertTrue(html.contains("href='https://app/reset?token=a&amp;b'"));
+        assertFalse(html.contains("{{"));
+        assertThrows(IllegalStateException.class, () -> engine.getTemplate("user-created", 99));
+        assertThrows(IllegalStateException.class, () -> engine.getTemplate("../application", 1));
+    }
+}
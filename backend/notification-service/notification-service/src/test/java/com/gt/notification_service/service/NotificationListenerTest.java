@@ -0,0 +1,67 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.dto.PassExpiredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationListenerTest {
+
+    @Mock
+    private EmailAuditWriter emailAuditWriter;
+    @Mock
+    private EmailSenderService emailSenderService;
+    @Mock
+    private EmailTemplateEngine emailTemplateEngine;
+
+    private NotificationListener listener;
+    private PassExpiredEvent event;
+
+    @BeforeEach
+    void setUp() {
+        listener = new NotificationListener(emailAuditWriter, emailSenderService,
+                new EmailSendDispatcher(false, 1, 1_000L), emailTemplateEngine);
+        event = new PassExpiredEvent(1L, "Visitor", LocalDateTime.now().minusDays(1), "employee@example.com", "admin@example.com", 1L);
+    }
+
+    @Test
+    void handlePassExpired_whenOneRecipientFails_shouldReportTheRecipientThatWasEmailed() {
+        // --- ARRANGE ---
+        when(emailSenderService.sendEmail(eq("employee@example.com"), anyString(), anyString())).thenReturn(true);
+        when(emailSenderService.sendEmail(eq("admin@example.com"), anyString(), anyString())).thenReturn(false);
+
+        // --- ACT ---
+        CompletableFuture<Void> result = listener.handlePassExpired(event, null);
+
+        // --- ASSERT ---
+        CompletionException failure = assertThrows(CompletionException.class, result::join);
+        PartialDeliveryException partial = assertInstanceOf(PartialDeliveryException.class, failure.getCause());
+        assertEquals(Set.of("employee"), partial.getDeliveredRecipients());
+    }
+
+    @Test
+    void handlePassExpired_onRetry_shouldOnlyEmailTheRecipientsNotYetDelivered() {
+        // --- ARRANGE ---
+        when(emailSenderService.sendEmail(eq("admin@example.com"), anyString(), anyString())).thenReturn(true);
+
+        // --- ACT ---
+        listener.handlePassExpired(event, "employee").join();
+
+        // --- ASSERT ---
+        verify(emailSenderService, never()).sendEmail(eq("employee@example.com"), anyString(), anyString());
+        verify(emailSenderService, times(1)).sendEmail(eq("admin@example.com"), anyString(), anyString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.gt.notification_service.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP stand-in for tests and benchmarks: accepts every message and counts sessions and messages.
+ *
+ * sessionSetupMs delays the greeting of each new connection, standing in for the TCP + STARTTLS + AUTH cost of
+ * a real provider. With closeAfterMessages > 0 the server drops a connection after that many messages, like a
+ * provider enforcing a per-session limit. dropNextMessageAfterData makes the server take in the next message and
+ * then drop the connection without its final reply, as when a reply is lost to a timeout after DATA.
+ */
+public class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long sessionSetupMs;
+    private final int closeAfterMessages;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicBoolean dropNextMessageAfterData = new AtomicBoolean();
+    private final Thread acceptor;
+
+    public LocalSmtpServer(long sessionSetupMs, int closeAfterMessages) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.sessionSetupMs = sessionSetupMs;
+        this.closeAfterMessages = closeAfterMessages;
+        this.acceptor = Thread.ofPlatform().daemon().name("local-smtp").start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    public int getMessages() {
+        return messages.get();
+    }
+
+    public void dropNextMessageAfterData() {
+        dropNextMessageAfterData.set(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        acceptor.interrupt();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.incrementAndGet();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            if (sessionSetupMs > 0) {
+                Thread.sleep(sessionSetupMs);
+            }
+            reply(out, "220 localhost ESMTP stand-in");
+            int receivedHere = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is discarded
+                        }
+                        messages.incrementAndGet();
+                        if (dropNextMessageAfterData.compareAndSet(true, false)) {
+                            return;
+                        }
+                        reply(out, "250 OK queued");
+                        if (closeAfterMessages > 0 && ++receivedHere >= closeAfterMessages) {
+                            return;
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away
+        }
+    }
+
+    private void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -28,6 +28,9 @@ public class CorsConfig {
         
         // Allow all headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
+
+        // Let the frontend read the dashboard ETags so it can poll with If-None-Match
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Age"));
         
         // Allow credentials (for authentication)
         configuration.setAllowCredentials(true);
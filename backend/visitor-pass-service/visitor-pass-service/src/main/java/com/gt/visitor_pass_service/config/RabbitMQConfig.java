@@ -32,6 +32,9 @@ public class RabbitMQConfig {
     public static final String QUEUE_PASSWORD_RESET_NAME = "password.reset.queue";
     public static final String ROUTING_KEY_PASSWORD_RESET = "password.event.reset";
 
+    // WebSocket messages relayed between visitor-pass-service nodes (see WebSocketRelayConfig)
+    public static final String ROUTING_KEY_WEBSOCKET_RELAY = "websocket.relay";
+
     @Bean
     public TopicExchange exchange() {
         return new TopicExchange(EXCHANGE_NAME);
@@ -27,6 +27,7 @@ public class WebConfig {
                         .allowedOrigins(allowedOrigins) // Allow origins from our properties file
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Specify allowed methods
                         .allowedHeaders("*") // Allow all headers
+                        .exposedHeaders("ETag", "Age") // Dashboards are polled with If-None-Match
                         .allowCredentials(true) // Allow cookies and authentication headers
                         .maxAge(3600); // Cache the pre-flight response for 1 hour
             }
@@ -0,0 +1,30 @@
+package com.gt.visitor_pass_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-node queue for relayed WebSocket messages. It is exclusive and auto-delete with a generated name,
+ * so every running node gets its own copy of each relayed message and the queue disappears with the node.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.websocket.cluster-relay.enabled", havingValue = "true")
+public class WebSocketRelayConfig {
+
+    @Bean(name = "webSocketRelayQueue")
+    public Queue webSocketRelayQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding webSocketRelayBinding(@Qualifier("webSocketRelayQueue") Queue queue, TopicExchange exchange) {
+        return BindingBuilder.bind(queue).to(exchange).with(RabbitMQConfig.ROUTING_KEY_WEBSOCKET_RELAY);
+    }
+}
@@ -1,5 +1,7 @@
 package com.gt.visitor_pass_service.config.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,6 +32,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    // true: build the principal from the token's verified claims (no per-request user query);
+    // false: load the user from the database on every request as before
+    @Value("${app.security.claims-auth.enabled:true}")
+    private boolean claimsAuthEnabled;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -45,25 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                log.debug("Step 2: Token is valid text and passed validation.");
-
-                String username = tokenProvider.getUsernameFromJWT(jwt);
-                log.debug("Step 3: Extracted username '{}' from token.", username);
-
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                log.debug("Step 4: Loaded UserDetails for username '{}'. User found? {}", username, (userDetails != null));
-
-                if (userDetails != null) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Step 5: Authentication successful. Set security context for user '{}'.", username);
+            if (StringUtils.hasText(jwt)) {
+                // The only signature check for this request; everything downstream reads the principal
+                UserDetails principal = loadPrincipal(jwt);
+                if (principal != null) {
+                    authenticate(principal, request);
                 }
             } else {
-                log.debug("Step 2 FAILED: JWT was null, empty, or invalid.");
+                log.debug("Step 2 FAILED: JWT was null or empty.");
             }
         } catch (Exception ex) {
             log.error("!!! Could not set user authentication in security context !!!", ex);
@@ -73,6 +73,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Parses and verifies the token once and builds a JwtUserPrincipal carrying its claims, so controllers and
+     * TenantSecurityService can read userId / tenantId from the Authentication instead of re-parsing the header.
+     * In claims mode the only lookup is PrincipalCache's active check, which hits the database at most once per
+     * user per TTL; otherwise (or for tokens without a userId claim) the user is loaded from the database.
+     * @return The principal, or null if the token is invalid or its user is inactive or gone
+     */
+    private UserDetails loadPrincipal(String jwt) {
+        Claims claims;
+        try {
+            claims = tokenProvider.getClaimsFromJWT(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.error("JWT token validation error: {}", ex.getMessage());
+            return null;
+        }
+        log.debug("Step 2: Token passed validation.");
+
+        String username = claims.getSubject();
+        Long userId = claims.get("userId", Long.class);
+        Long tenantId = claims.get("tenantId", Long.class);
+
+        if (!claimsAuthEnabled || userId == null) {
+            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            log.debug("Step 3: Loaded UserDetails for username '{}' from the database.", username);
+            String role = userDetails.getAuthorities().stream().findFirst().map(Object::toString).orElse(null);
+            return new JwtUserPrincipal(userId, userDetails.getUsername(), role, tenantId);
+        }
+        if (!principalCache.isActive(userId, username)) {
+            log.debug("Step 3 FAILED: User '{}' is inactive or no longer exists.", username);
+            return null;
+        }
+        log.debug("Step 3: Built principal for user '{}' from token claims.", username);
+        return new JwtUserPrincipal(userId, username, claims.get("role", String.class), tenantId);
+    }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.debug("Step 5: Authentication successful. Set security context for user '{}'.", userDetails.getUsername());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         log.debug("Received Authorization Header: {}", bearerToken);
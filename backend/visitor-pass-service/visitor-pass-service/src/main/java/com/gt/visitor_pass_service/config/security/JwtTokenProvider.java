@@ -2,8 +2,8 @@ package com.gt.visitor_pass_service.config.security;
 
 import com.gt.visitor_pass_service.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
@@ -14,7 +14,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Component
@@ -28,12 +28,18 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration-ms}")
     private int jwtExpirationInMs;
 
-    private Key key;
+    private SecretKey key;
+
+    // Built once; JwtParser is immutable and thread-safe
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         // Creates a secure key from your secret string for signing the JWT
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
     public String generateToken(Authentication authentication, User user) {
@@ -42,31 +48,31 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername()) // The user's email
+                .subject(userPrincipal.getUsername()) // The user's email
                 .claim("userId", user.getId())          // Custom claim for the user's ID
                 .claim("role", user.getRole())          // Custom claim for the user's role
                 .claim("tenantId", user.getTenant() != null ? user.getTenant().getId() : null) // Custom claim for the tenant ID
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .issuedAt(new Date())
+                .expiration(expiryDate)
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry and returns its claims.
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims getClaimsFromJWT(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.getSubject();
     }
 
     public Long getTenantIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("tenantId", Long.class);
     }
 
@@ -78,20 +84,13 @@ public class JwtTokenProvider {
      * @return The user's ID (Long).
      */
     public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("userId", Long.class);
     }
 
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(authToken);
+            parser.parseSignedClaims(authToken);
             return true;
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
@@ -0,0 +1,81 @@
+package com.gt.visitor_pass_service.config.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The authenticated user, built from the verified claims of the request's JWT instead of a database row.
+ * getUsername() is the email, so authentication.getName() keeps working everywhere.
+ */
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Long tenantId;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(Long userId, String email, String role, Long tenantId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.tenantId = tenantId;
+        this.authorities = role != null ? Collections.singleton(new SimpleGrantedAuthority(role)) : Collections.emptySet();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtUserPrincipal[userId=" + userId + ", email=" + email + ", role=" + role + ", tenantId=" + tenantId + "]";
+    }
+}
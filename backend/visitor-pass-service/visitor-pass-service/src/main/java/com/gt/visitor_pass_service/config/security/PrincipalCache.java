@@ -0,0 +1,95 @@
+package com.gt.visitor_pass_service.config.security;
+
+import com.gt.visitor_pass_service.dto.UserStatusView;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers, per user ID, whether a token's user still exists, is active and still has the token's email,
+ * so JwtAuthenticationFilter can trust the token's claims without a query on every request.
+ *
+ * Entries live for app.security.principal-cache.ttl-ms and the map is LRU-capped at
+ * app.security.principal-cache.max-entries. UserService invalidates a user as soon as they are
+ * (de)activated, deleted or change their email (after the commit when it runs in a transaction), so the TTL only
+ * bounds staleness for changes made elsewhere.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final Map<Long, Entry> entries;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param userId The token's userId claim
+     * @param email The token's subject
+     * @return true if the user exists, is active and still has this email
+     */
+    public boolean isActive(Long userId, String email) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry == null || entry.expiresAt() <= now) {
+            // Loaded outside the lock; two concurrent misses for one user just both query
+            entry = userRepository.findStatusById(userId)
+                    .map(status -> new Entry(status.getEmail(), Boolean.TRUE.equals(status.getActive()), now + ttlMs))
+                    .orElseGet(() -> new Entry(null, false, now + ttlMs));
+            synchronized (entries) {
+                entries.put(userId, entry);
+            }
+        }
+        return entry.active() && entry.email() != null && entry.email().equalsIgnoreCase(email);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            synchronized (entries) {
+                entries.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the user once the current transaction commits, or right away if there is none. Invalidating
+     * earlier would let a concurrent request re-cache the row as it still is until the commit.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId);
+            }
+        });
+    }
+
+    private record Entry(String email, boolean active, long expiresAt) {
+    }
+}
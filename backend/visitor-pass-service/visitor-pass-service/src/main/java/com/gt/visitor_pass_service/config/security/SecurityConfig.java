@@ -1,5 +1,6 @@
 package com.gt.visitor_pass_service.config.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -71,6 +72,10 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
                     .requestMatchers("/ws/**").permitAll()
                     // ^^^ --- END OF FIX --- ^^^
 
+                    // Streaming responses (the SSE gate feed) finish on an async dispatch that carries no token;
+                    // the original request was already authorized
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                     // --- INTERNAL SERVICE ENDPOINTS ---
                     .requestMatchers("/api/internal/**").hasAuthority("ROLE_INTERNAL_SERVICE")
 
@@ -1,7 +1,11 @@
 package com.gt.visitor_pass_service.controller;
 
+import com.gt.visitor_pass_service.dto.BulkPassDecisionRequest;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionResponse;
+import com.gt.visitor_pass_service.dto.CursorPage;
 import com.gt.visitor_pass_service.dto.RejectPassRequest;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.service.BulkPassDecisionService;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,10 +28,13 @@ public class ApproverController {
 
     private final VisitorPassService visitorPassService;
     private final TenantSecurityService tenantSecurityService;
+    private final BulkPassDecisionService bulkPassDecisionService;
 
-    public ApproverController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService) {
+    public ApproverController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService,
+                              BulkPassDecisionService bulkPassDecisionService) {
         this.visitorPassService = visitorPassService;
         this.tenantSecurityService = tenantSecurityService;
+        this.bulkPassDecisionService = bulkPassDecisionService;
     }
 
     // VVV --- THIS IS THE CRITICAL METHOD --- VVV
@@ -52,6 +59,20 @@ public ResponseEntity<Page<VisitorPassResponse>> getPassesByStatus(
     return ResponseEntity.ok(response);
 }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyAuthority('ROLE_APPROVER', 'ROLE_TENANT_ADMIN')")
+    @Operation(summary = "Get Passes by Status (Cursor)", description = "Newest-first passes with a specific status, without a total count. Pass the returned nextCursor to fetch the next page.")
+    public ResponseEntity<CursorPage<VisitorPassResponse>> getPassesByStatusByCursor(
+            @PathVariable Long tenantId,
+            @RequestParam String status,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        CursorPage<VisitorPassResponse> response = visitorPassService.getPassesByStatus(tenantId, status, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{passId}/approve")
     @PreAuthorize("hasAnyAuthority('ROLE_APPROVER', 'ROLE_TENANT_ADMIN')")
     public ResponseEntity<VisitorPassResponse> approvePass(
@@ -78,4 +99,17 @@ public ResponseEntity<Page<VisitorPassResponse>> getPassesByStatus(
         VisitorPassResponse response = visitorPassService.rejectPass(passId, approverEmail, request.getReason());
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('ROLE_APPROVER', 'ROLE_TENANT_ADMIN')")
+    @Operation(summary = "Bulk Approve or Reject Passes", description = "Approves or rejects up to 1000 pending passes, given by ID or by visit date range, and reports the outcome for each pass.")
+    public ResponseEntity<BulkPassDecisionResponse> decidePasses(
+            @PathVariable Long tenantId,
+            @Valid @RequestBody BulkPassDecisionRequest request,
+            Authentication authentication,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        BulkPassDecisionResponse response = bulkPassDecisionService.decide(tenantId, request, authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,6 +1,7 @@
 package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.CreatePassRequest;
+import com.gt.visitor_pass_service.dto.CursorPage;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
@@ -67,6 +68,18 @@ public class EmployeeController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/history/cursor")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'TENANT_ADMIN')")
+    @Operation(summary = "Get Personal Pass History (Cursor)",
+            description = "Newest-first pass history of the current user without a total count. Pass the returned nextCursor to fetch the next page.")
+    public ResponseEntity<CursorPage<VisitorPassResponse>> getMyPassHistoryByCursor(
+            Authentication authentication,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPage<VisitorPassResponse> history = visitorPassService.getPassHistoryForUser(authentication.getName(), cursor, size);
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'APPROVER', 'SECURITY', 'TENANT_ADMIN')")
     @Operation(summary = "Get All Passes in Tenant (Paginated)",
@@ -79,4 +92,18 @@ public class EmployeeController {
         Page<VisitorPassResponse> passes = visitorPassService.getPassesByTenant(tenantId, pageable);
         return ResponseEntity.ok(passes);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'APPROVER', 'SECURITY', 'TENANT_ADMIN')")
+    @Operation(summary = "Get All Passes in Tenant (Cursor)",
+            description = "Newest-first passes of a tenant without a total count. Pass the returned nextCursor to fetch the next page.")
+    public ResponseEntity<CursorPage<VisitorPassResponse>> getPassesForTenantByCursor(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        CursorPage<VisitorPassResponse> passes = visitorPassService.getPassesByTenant(tenantId, cursor, size);
+        return ResponseEntity.ok(passes);
+    }
+}
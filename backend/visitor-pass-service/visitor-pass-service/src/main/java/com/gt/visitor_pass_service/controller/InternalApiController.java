@@ -1,6 +1,7 @@
 package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.service.PassCodeIndex;
 import com.gt.visitor_pass_service.service.VisitorPassService;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.http.ResponseEntity;
@@ -9,15 +10,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/internal")
 @Hidden // Hides this controller from the public Swagger UI documentation
 public class InternalApiController {
 
     private final VisitorPassService visitorPassService;
+    private final PassCodeIndex passCodeIndex;
 
-    public InternalApiController(VisitorPassService visitorPassService) {
+    public InternalApiController(VisitorPassService visitorPassService, PassCodeIndex passCodeIndex) {
         this.visitorPassService = visitorPassService;
+        this.passCodeIndex = passCodeIndex;
     }
 
     @GetMapping("/passes/{id}")
@@ -25,4 +30,10 @@ public class InternalApiController {
         VisitorPassResponse response = visitorPassService.getPassById(id);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // Hit/miss/eviction counters of the in-memory gate lookup index
+    @GetMapping("/metrics/pass-code-index")
+    public ResponseEntity<Map<String, Object>> getPassCodeIndexStats() {
+        return ResponseEntity.ok(passCodeIndex.getStats());
+    }
+}
@@ -1,7 +1,7 @@
 package com.gt.visitor_pass_service.controller;
 
-import com.gt.visitor_pass_service.config.security.JwtTokenProvider;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.service.GateRosterFeed;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,9 +14,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 // ^^^ --- END OF CORRECT IMPORTS --- ^^^
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/tenants/{tenantId}/security")
@@ -25,13 +27,14 @@ public class SecurityController {
 
     private final VisitorPassService visitorPassService;
     private final TenantSecurityService tenantSecurityService;
-    private final JwtTokenProvider tokenProvider;
+    private final GateRosterFeed gateRosterFeed;
 
-    // The constructor should only have these three dependencies
-    public SecurityController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService, JwtTokenProvider tokenProvider) {
+    // Token claims come from the authenticated principal via TenantSecurityService, so no JwtTokenProvider here
+    public SecurityController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService,
+                              GateRosterFeed gateRosterFeed) {
         this.visitorPassService = visitorPassService;
         this.tenantSecurityService = tenantSecurityService;
-        this.tokenProvider = tokenProvider;
+        this.gateRosterFeed = gateRosterFeed;
     }
 
     // This is the new paginated method
@@ -46,6 +49,16 @@ public class SecurityController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/roster/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_SECURITY', 'ROLE_TENANT_ADMIN')")
+    @Operation(summary = "Stream Today's Gate Roster", description = "Server-Sent Events: one 'roster' event with today's approved and checked-in passes, then a 'pass' event for every change of a pass visiting today. Replaces polling /dashboard.")
+    public SseEmitter streamTodaysRoster(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            HttpServletRequest request) {
+        tenantSecurityService.checkTenantAccess(request.getHeader("Authorization"), tenantId);
+        return gateRosterFeed.subscribe(tenantId, visitorPassService::getTodaysRoster);
+    }
+
     @GetMapping("/passes/search")
     @PreAuthorize("hasAnyAuthority('ROLE_SECURITY', 'ROLE_TENANT_ADMIN')") // Changed to hasAnyAuthority
     @Operation(summary = "Search for a Pass by Code", description = "Finds a specific visitor pass using its unique pass code.")
@@ -78,8 +91,7 @@ public class SecurityController {
             @Parameter(description = "ID of the pass to check-out") @PathVariable Long passId,
             HttpServletRequest request) {
         tenantSecurityService.checkTenantAccess(request.getHeader("Authorization"), tenantId);
-        String token = request.getHeader("Authorization").substring(7);
-        Long securityUserId = tokenProvider.getUserIdFromJWT(token);
+        Long securityUserId = tenantSecurityService.getCurrentUserId(request.getHeader("Authorization"));
         VisitorPassResponse response = visitorPassService.checkOut(passId, securityUserId);
         return ResponseEntity.ok(response);
     }
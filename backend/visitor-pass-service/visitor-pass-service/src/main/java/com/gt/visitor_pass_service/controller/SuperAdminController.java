@@ -1,10 +1,17 @@
 package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.CreateTenantAndAdminRequest;
+import com.gt.visitor_pass_service.dto.PassActivityPoint;
+import com.gt.visitor_pass_service.dto.RollupBackfillResponse;
 import com.gt.visitor_pass_service.dto.SuperAdminDashboardDTO;
 import com.gt.visitor_pass_service.dto.TenantActivityDTO;
 import com.gt.visitor_pass_service.dto.TenantDashboardInfo;
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import com.gt.visitor_pass_service.service.DashboardCache;
+import com.gt.visitor_pass_service.service.PassRollupBackfill;
+import com.gt.visitor_pass_service.service.PassRollupService;
 import com.gt.visitor_pass_service.service.SuperAdminDashboardService;
+import com.gt.visitor_pass_service.service.SuperAdminDashboardSnapshot;
 import com.gt.visitor_pass_service.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,13 +21,17 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
@@ -32,23 +43,55 @@ public class SuperAdminController {
 
     private final UserService userService;
     private final SuperAdminDashboardService dashboardService; // <-- INJECT NEW SERVICE
+    private final SuperAdminDashboardSnapshot dashboardSnapshot;
+    private final PassRollupService passRollupService;
+    private final PassRollupBackfill passRollupBackfill;
 
-    public SuperAdminController(UserService userService, SuperAdminDashboardService dashboardService) {
+    public SuperAdminController(UserService userService, SuperAdminDashboardService dashboardService, SuperAdminDashboardSnapshot dashboardSnapshot,
+                                PassRollupService passRollupService, PassRollupBackfill passRollupBackfill) {
         this.userService = userService;
         this.dashboardService = dashboardService; // <-- INITIALIZE
+        this.dashboardSnapshot = dashboardSnapshot;
+        this.passRollupService = passRollupService;
+        this.passRollupBackfill = passRollupBackfill;
     }
 
     // NEW / REPLACED ENDPOINT
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    @Operation(summary = "Get Super Admin Analytics Dashboard", description = "Retrieves a complete system-wide dashboard including global stats, per-tenant activity, and recent passes.")
+    @Operation(summary = "Get Super Admin Analytics Dashboard", description = "Retrieves a complete system-wide dashboard including global stats, per-tenant activity, and recent passes. Served from a snapshot rebuilt in the background; the Age header gives its age in seconds.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved dashboard data"),
             @ApiResponse(responseCode = "403", description = "Forbidden - Caller is not a Super Admin")
     })
-    public ResponseEntity<SuperAdminDashboardDTO> getAnalyticsDashboard() {
-        SuperAdminDashboardDTO dashboardData = dashboardService.getDashboardData();
-        return ResponseEntity.ok(dashboardData);
+    public ResponseEntity<SuperAdminDashboardDTO> getAnalyticsDashboard(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SuperAdminDashboardSnapshot.Snapshot snapshot = dashboardSnapshot.get();
+        String age = String.valueOf(snapshot.ageMs() / 1000);
+        if (DashboardCache.isNotModified(ifNoneMatch, snapshot.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.eTag()).header(HttpHeaders.AGE, age).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.eTag()).header(HttpHeaders.AGE, age).body(snapshot.dashboard());
+    }
+
+    @GetMapping("/analytics/passes")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get System-wide Pass Activity Trend", description = "Pass activity of all locations together per hour or day for the days [from, to], read from the rollups only.")
+    public ResponseEntity<List<PassActivityPoint>> getPassActivity(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") String granularity) {
+        RollupGranularity bucketSize = RollupGranularity.valueOf(granularity.toUpperCase());
+        return ResponseEntity.ok(passRollupService.getGlobalSeries(from, to, bucketSize));
+    }
+
+    @PostMapping("/analytics/backfill")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Rebuild Pass Activity Rollups", description = "Rebuilds the hourly and daily rollups of the past days [from, to] from the audit logs; 'to' must be before today.")
+    public ResponseEntity<RollupBackfillResponse> backfillPassActivity(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(passRollupBackfill.backfill(from, to));
     }
 
     // The createTenantAndAdmin method remains the same
@@ -92,10 +135,11 @@ public class SuperAdminController {
 
     @GetMapping("/locations")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    @Operation(summary = "Get All Locations (Paginated)", description = "Retrieves a paginated list of all locations with their activity data.")
+    @Operation(summary = "Get All Locations (Paginated)", description = "Retrieves a paginated list of all locations with their activity data. Sortable by tenantName, userCount or totalPassesAllTime; 'search' filters by name or location details.")
     public ResponseEntity<Page<TenantActivityDTO>> getAllLocations(
+            @RequestParam(required = false) String search,
             @PageableDefault(size = 10, sort = "tenantName") Pageable pageable) {
-        Page<TenantActivityDTO> locations = dashboardService.getPaginatedTenantActivity(pageable);
+        Page<TenantActivityDTO> locations = dashboardService.getPaginatedTenantActivity(search, pageable);
         return ResponseEntity.ok(locations);
     }
 
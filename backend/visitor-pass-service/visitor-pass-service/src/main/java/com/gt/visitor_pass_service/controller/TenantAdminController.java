@@ -1,7 +1,10 @@
 package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.*;
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import com.gt.visitor_pass_service.service.DashboardCache;
 import com.gt.visitor_pass_service.service.DashboardService;
+import com.gt.visitor_pass_service.service.PassRollupService;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.UserService;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,12 +12,17 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/tenants/{tenantId}/admin")
 @Tag(name = "2. Tenant Admin", description = "APIs for Tenant Admins...")
@@ -23,18 +31,44 @@ public class TenantAdminController {
     private final UserService userService;
     private final TenantSecurityService tenantSecurityService;
     private final DashboardService dashboardService;
+    private final DashboardCache dashboardCache;
+    private final PassRollupService passRollupService;
 
-    public TenantAdminController(UserService userService, TenantSecurityService tenantSecurityService, DashboardService dashboardService) {
+    public TenantAdminController(UserService userService, TenantSecurityService tenantSecurityService, DashboardService dashboardService,
+                                 DashboardCache dashboardCache, PassRollupService passRollupService) {
         this.userService = userService;
         this.tenantSecurityService = tenantSecurityService;
         this.dashboardService = dashboardService;
+        this.dashboardCache = dashboardCache;
+        this.passRollupService = passRollupService;
     }
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasAuthority('ROLE_TENANT_ADMIN')")
     public ResponseEntity<TenantDashboardResponse> getDashboard(@PathVariable Long tenantId, HttpServletRequest servletRequest) {
         tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
-        return ResponseEntity.ok(dashboardService.getTenantDashboardData(tenantId));
+        // A polling client that already has the current version gets a 304 without any database work
+        String currentETag = dashboardCache.getTenantDashboardETag(tenantId);
+        if (DashboardCache.isNotModified(servletRequest.getHeader(HttpHeaders.IF_NONE_MATCH), currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+        }
+        DashboardCache.Cached<TenantDashboardResponse> dashboard =
+                dashboardCache.getTenantDashboard(tenantId, () -> dashboardService.getTenantDashboardData(tenantId));
+        return ResponseEntity.ok().eTag(dashboard.eTag()).body(dashboard.value());
+    }
+
+    // Trend series for the days [from, to], read from the hourly/daily rollups only; granularity is HOUR or DAY
+    @GetMapping("/analytics/passes")
+    @PreAuthorize("hasAuthority('ROLE_TENANT_ADMIN')")
+    public ResponseEntity<List<PassActivityPoint>> getPassActivity(
+            @PathVariable Long tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        RollupGranularity bucketSize = RollupGranularity.valueOf(granularity.toUpperCase());
+        return ResponseEntity.ok(passRollupService.getTenantSeries(tenantId, from, to, bucketSize));
     }
 
     @GetMapping("/users")
@@ -0,0 +1,29 @@
+package com.gt.visitor_pass_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Approve or reject many pending passes at once. Either list the pass IDs, or leave them out and
+ * give a visit date range to act on every pending pass of the tenant visiting in it.
+ */
+@Data
+public class BulkPassDecisionRequest {
+
+    @NotBlank(message = "Action must be provided.")
+    @Pattern(regexp = "APPROVE|REJECT", message = "Action must be APPROVE or REJECT.")
+    private String action;
+
+    private List<Long> passIds;
+
+    // Used only when passIds is empty; both dates are inclusive
+    private LocalDate visitDateFrom;
+    private LocalDate visitDateTo;
+
+    // Required when action is REJECT
+    private String reason;
+}
@@ -0,0 +1,30 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPassDecisionResponse {
+
+    private String action;
+    private int requested;
+    private int succeeded;
+    private List<PassOutcome> results;
+
+    /**
+     * Outcome for one pass: APPROVED / REJECTED, NOT_FOUND (not a pass of this tenant),
+     * NOT_PENDING (already decided, possibly by a concurrent request) or FAILED (its chunk could not be written).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PassOutcome {
+        private Long passId;
+        private String outcome;
+    }
+}
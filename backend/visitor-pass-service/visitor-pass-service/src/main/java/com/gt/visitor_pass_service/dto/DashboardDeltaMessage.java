@@ -0,0 +1,23 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushed to /topic/dashboard/{tenantId}: the passes that changed in one debounce window and how each
+ * TenantDashboardStats field moved (keyed by field name, non-zero increments only).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaMessage {
+    private String type; // Always "PASS_CHANGES"
+    private Long tenantId;
+    private String message; // Kept for clients that simply reload on any message
+    private List<PassChangeSummary> passes;
+    private Map<String, Long> statDeltas;
+}
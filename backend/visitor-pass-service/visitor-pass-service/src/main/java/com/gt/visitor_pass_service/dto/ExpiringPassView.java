@@ -0,0 +1,17 @@
+package com.gt.visitor_pass_service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an overdue pass with just the columns the expiry job needs
+ * to write its audit row, build a {@link PassExpiredEvent} and drop the pass from the pass-code index.
+ */
+public interface ExpiringPassView {
+    Long getId();
+    Long getTenantId();
+    String getVisitorName();
+    LocalDateTime getVisitDateTime();
+    String getEmployeeEmail();
+    String getPassCode();
+    Long getVersion();
+}
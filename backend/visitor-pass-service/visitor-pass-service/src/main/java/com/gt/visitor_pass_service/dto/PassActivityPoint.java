@@ -0,0 +1,26 @@
+package com.gt.visitor_pass_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of an analytics trend series. Peak occupancy is per tenant, so it is left out of cross-tenant series.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PassActivityPoint {
+    private LocalDateTime bucketStart;
+    private long created;
+    private long approved;
+    private long rejected;
+    private long checkedIn;
+    private long checkedOut;
+    private long expired;
+    private Long peakOccupancy;
+}
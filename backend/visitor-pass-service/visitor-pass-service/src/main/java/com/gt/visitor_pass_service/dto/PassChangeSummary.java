@@ -0,0 +1,22 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass in a DashboardDeltaMessage. previousStatus is null for a newly created pass.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassChangeSummary {
+    private Long passId;
+    private String passCode;
+    private String visitorName;
+    private LocalDateTime visitDateTime;
+    private String previousStatus;
+    private String status;
+}
@@ -0,0 +1,20 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A STOMP message one node sent to its own subscribers, relayed over RabbitMQ to the other nodes.
+ * The payload is kept as the JSON the originating node rendered, so every node sends identical bodies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelayedWebSocketMessage implements Serializable {
+    private String originNodeId;
+    private String destination;
+    private String payloadJson;
+}
@@ -0,0 +1,17 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBackfillResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private long auditEventsRead;
+    private long rowsWritten;
+}
@@ -3,6 +3,7 @@ package com.gt.visitor_pass_service.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.NoArgsConstructor;
 
@@ -14,4 +15,5 @@ public class SuperAdminDashboardDTO {
     private GlobalStatsDTO globalStats;
     private List<TenantActivityDTO> tenantActivity;
     private List<VisitorPassResponse> recentPassesAcrossAllTenants; // Last 5-10 recent passes system-wide
+    private LocalDateTime generatedAt; // When this snapshot was built; the response's Age header gives its age
 }
\ No newline at end of file
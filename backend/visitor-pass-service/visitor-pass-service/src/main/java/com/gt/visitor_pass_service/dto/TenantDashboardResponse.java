@@ -13,4 +13,5 @@ public class TenantDashboardResponse {
     private List<VisitorPassResponse> recentPasses; // Last 10 passes
     private List<AuditLog> recentPassActivity; // Last 10 pass-related business events
     private List<EmailAuditLogResponse> recentEmailActivity; // Last 10 email events
+    private List<String> staleSections; // Sections that failed or missed their deadline and are returned empty
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.gt.visitor_pass_service.dto;
+
+/**
+ * Read-only projection with just what request authentication needs to know about a user.
+ */
+public interface UserStatusView {
+    String getEmail();
+    Boolean getActive();
+}
@@ -19,4 +19,5 @@ public class VisitorPassResponse {
     private String createdByEmployeeName;
     private String approvedBy;          // <-- ADDED
     private String rejectionReason;     // <-- ADDED
+    private Long version;               // Row version, so PassCodeIndex never replaces a newer state with an older one
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.gt.visitor_pass_service.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -79,4 +80,26 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+
+    // A pass transition lost the race to a concurrent request, or is not allowed from the pass's current status
+    @ExceptionHandler({PassTransitionConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleConflictException(
+            RuntimeException ex, WebRequest request) {
+
+        System.err.println("=== CONFLICT EXCEPTION ===");
+        System.err.println("Message: " + ex.getMessage());
+        System.err.println("Request: " + request.getDescription(false));
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.CONFLICT.value());
+        errorResponse.put("error", "Conflict");
+        errorResponse.put("message", ex instanceof ObjectOptimisticLockingFailureException
+                ? "The record was modified by another request. Please reload and try again."
+                : ex.getMessage());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+        errorResponse.put("errorType", "CONFLICT");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,15 @@
+package com.gt.visitor_pass_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A pass status change was refused because the pass is not (or no longer) in the required status,
+ * e.g. a concurrent request decided or scanned it first.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PassTransitionConflictException extends RuntimeException {
+    public PassTransitionConflictException(String message) {
+        super(message);
+    }
+}
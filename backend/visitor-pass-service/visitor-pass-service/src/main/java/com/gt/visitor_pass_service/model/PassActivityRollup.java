@@ -0,0 +1,49 @@
+package com.gt.visitor_pass_service.model;
+
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pass activity of one tenant in one hour or day: how many passes moved into each status, and the highest
+ * number of visitors checked in at the same time. Maintained by PassRollupService; analytics read only these rows.
+ */
+@Data
+@Entity
+@Table(name = "pass_activity_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_tenant_granularity_bucket",
+                columnNames = {"tenant_id", "granularity", "bucket_start"}),
+        // Cross-tenant series for the super admin
+        indexes = @Index(name = "idx_rollup_granularity_bucket", columnList = "granularity, bucket_start"))
+public class PassActivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // Transitions into each status within the bucket; "created" counts new (PENDING) passes
+    private long created;
+    private long approved;
+    private long rejected;
+    private long checkedIn;
+    private long checkedOut;
+    private long expired;
+
+    // Highest number of CHECKED_IN passes at any moment of the bucket
+    private long peakOccupancy;
+
+    // CHECKED_IN passes at the end of a past day, set on DAY rows by PassRollupBackfill; null on rows it did not write
+    private Long closingOccupancy;
+}
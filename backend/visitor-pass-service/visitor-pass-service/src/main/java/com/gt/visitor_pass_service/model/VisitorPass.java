@@ -10,7 +10,19 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "visitor_passes")
+@Table(name = "visitor_passes", indexes = {
+        // Security desk / tenant dashboard "today" range queries
+        @Index(name = "idx_pass_tenant_visit_status", columnList = "tenant_id, visit_date_time, status"),
+        // Per-tenant status counts
+        @Index(name = "idx_pass_tenant_status", columnList = "tenant_id, status"),
+        // Keyset-paginated tenant listing and approver queue, newest first (InnoDB appends id to secondary indexes)
+        @Index(name = "idx_pass_tenant_created_at", columnList = "tenant_id, created_at"),
+        @Index(name = "idx_pass_tenant_status_created_at", columnList = "tenant_id, status, created_at"),
+        // Personal pass history, newest first
+        @Index(name = "idx_pass_created_by_created_at", columnList = "created_by, created_at"),
+        // Global "active today" count on the super admin dashboard
+        @Index(name = "idx_pass_visit_status", columnList = "visit_date_time, status")
+})
 public class VisitorPass {
 
     @Id
@@ -59,4 +71,9 @@ public class VisitorPass {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Status moves go through PassStateMachine's conditional UPDATEs, which bump this too,
+    // so a stale entity save after a concurrent transition fails instead of overwriting it.
+    @Version
+    private long version;
 }
\ No newline at end of file
@@ -6,5 +6,17 @@ public enum PassStatus {
     REJECTED,
     CHECKED_IN,
     CHECKED_OUT,
-    EXPIRED // <-- ADDED THIS LINE
-}
\ No newline at end of file
+    EXPIRED; // <-- ADDED THIS LINE
+
+    /**
+     * The pass lifecycle: PENDING -> APPROVED | REJECTED, APPROVED -> CHECKED_IN | EXPIRED, CHECKED_IN -> CHECKED_OUT.
+     */
+    public boolean canTransitionTo(PassStatus target) {
+        return switch (this) {
+            case PENDING -> target == APPROVED || target == REJECTED;
+            case APPROVED -> target == CHECKED_IN || target == EXPIRED;
+            case CHECKED_IN -> target == CHECKED_OUT;
+            default -> false;
+        };
+    }
+}
@@ -1,10 +1,29 @@
 package com.gt.visitor_pass_service.repository;
 
 import com.gt.visitor_pass_service.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findTop10ByTenantIdAndPassIdIsNotNullOrderByTimestampDesc(Long tenantId);
+
+    // Keyset-paged read of the given actions logged in [start, end), in insertion order; used by the rollup backfill.
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :start AND a.timestamp < :end AND a.actionDescription IN :actions " +
+           "AND a.id > :afterId ORDER BY a.id")
+    List<AuditLog> findActionsLoggedBetween(@Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            @Param("actions") Collection<String> actions,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    // Rows are [tenantId, action, count] for the given actions logged before the given time
+    @Query("SELECT a.tenantId, a.actionDescription, COUNT(a) FROM AuditLog a WHERE a.timestamp < :before AND a.actionDescription IN :actions " +
+           "GROUP BY a.tenantId, a.actionDescription")
+    List<Object[]> countActionsByTenantBefore(@Param("before") LocalDateTime before, @Param("actions") Collection<String> actions);
 }
@@ -0,0 +1,59 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.PassActivityRollup;
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PassActivityRollupRepository extends JpaRepository<PassActivityRollup, Long> {
+
+    // Adds a flushed delta to an existing bucket; returns 0 if the bucket has no row yet.
+    // Clears the persistence context so rows loaded earlier in the same transaction are re-read with the new counts.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PassActivityRollup r SET r.created = r.created + :created, r.approved = r.approved + :approved, " +
+           "r.rejected = r.rejected + :rejected, r.checkedIn = r.checkedIn + :checkedIn, r.checkedOut = r.checkedOut + :checkedOut, " +
+           "r.expired = r.expired + :expired, " +
+           "r.peakOccupancy = CASE WHEN r.peakOccupancy < :peakOccupancy THEN :peakOccupancy ELSE r.peakOccupancy END " +
+           "WHERE r.tenantId = :tenantId AND r.granularity = :granularity AND r.bucketStart = :bucketStart")
+    int addToBucket(@Param("tenantId") Long tenantId,
+                    @Param("granularity") RollupGranularity granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("created") long created,
+                    @Param("approved") long approved,
+                    @Param("rejected") long rejected,
+                    @Param("checkedIn") long checkedIn,
+                    @Param("checkedOut") long checkedOut,
+                    @Param("expired") long expired,
+                    @Param("peakOccupancy") long peakOccupancy);
+
+    @Query("SELECT r FROM PassActivityRollup r WHERE r.tenantId = :tenantId AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :start AND r.bucketStart < :end ORDER BY r.bucketStart")
+    List<PassActivityRollup> findSeries(@Param("tenantId") Long tenantId,
+                                        @Param("granularity") RollupGranularity granularity,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    // Rows are [bucketStart, created, approved, rejected, checkedIn, checkedOut, expired] summed over all tenants
+    @Query("SELECT r.bucketStart, SUM(r.created), SUM(r.approved), SUM(r.rejected), SUM(r.checkedIn), SUM(r.checkedOut), SUM(r.expired) " +
+           "FROM PassActivityRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :start AND r.bucketStart < :end " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> sumSeries(@Param("granularity") RollupGranularity granularity,
+                             @Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end);
+
+    // Rows are [tenantId, closingOccupancy] of every tenant's bucket of the given granularity starting at the given time
+    @Query("SELECT r.tenantId, r.closingOccupancy FROM PassActivityRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart")
+    List<Object[]> findClosingOccupancies(@Param("granularity") RollupGranularity granularity,
+                                          @Param("bucketStart") LocalDateTime bucketStart);
+
+    // Clears every tenant's buckets of both granularities starting in [start, end), before a backfill rewrites them.
+    @Modifying
+    @Query("DELETE FROM PassActivityRollup r WHERE r.bucketStart >= :start AND r.bucketStart < :end")
+    int deleteBuckets(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
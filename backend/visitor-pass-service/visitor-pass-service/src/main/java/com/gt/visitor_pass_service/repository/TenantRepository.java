@@ -1,7 +1,32 @@
 package com.gt.visitor_pass_service.repository;
 
 import com.gt.visitor_pass_service.model.Tenant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
-}
\ No newline at end of file
+
+    // Super admin locations listing. :search is a lower-case LIKE pattern matched against name and location details, or null.
+    @Query(value = "SELECT t FROM Tenant t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search)",
+            countQuery = "SELECT COUNT(t) FROM Tenant t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search)")
+    Page<Tenant> findLocations(@Param("excludedName") String excludedName, @Param("search") String search, Pageable pageable);
+
+    // Same filter, one id per tenant; sort with JpaSort.unsafe("COUNT(vp)") to page by pass volume
+    @Query(value = "SELECT t.id FROM Tenant t LEFT JOIN VisitorPass vp ON vp.tenant = t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search) GROUP BY t.id",
+            countQuery = "SELECT COUNT(t) FROM Tenant t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search)")
+    Page<Long> findLocationIdsWithPassCounts(@Param("excludedName") String excludedName, @Param("search") String search, Pageable pageable);
+
+    // Same filter, one id per tenant; sort with JpaSort.unsafe("COUNT(u)") to page by user count
+    @Query(value = "SELECT t.id FROM Tenant t LEFT JOIN User u ON u.tenant = t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search) GROUP BY t.id",
+            countQuery = "SELECT COUNT(t) FROM Tenant t WHERE t.name <> :excludedName " +
+            "AND (:search IS NULL OR LOWER(t.name) LIKE :search OR LOWER(t.locationDetails) LIKE :search)")
+    Page<Long> findLocationIdsWithUserCounts(@Param("excludedName") String excludedName, @Param("search") String search, Pageable pageable);
+}
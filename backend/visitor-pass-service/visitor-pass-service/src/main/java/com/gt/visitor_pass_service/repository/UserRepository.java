@@ -1,10 +1,14 @@
 package com.gt.visitor_pass_service.repository;
 
+import com.gt.visitor_pass_service.dto.UserStatusView;
 import com.gt.visitor_pass_service.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page; // <-- Import Page
 import org.springframework.data.domain.Pageable; // <-- Import Pageable
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +21,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByTenantId(Long tenantId);
 
+    // Rows are [tenantId, userCount]
+    @Query("SELECT u.tenant.id, COUNT(u) FROM User u WHERE u.tenant.id IN :tenantIds GROUP BY u.tenant.id")
+    List<Object[]> countUsersByTenantIdIn(@Param("tenantIds") Collection<Long> tenantIds);
+
     Page<User> findByTenantId(Long tenantId, Pageable pageable);
 
     Optional<User> findFirstByTenantIdAndRole(Long tenantId, String role);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Returns [tenantId, email] pairs so callers can resolve many tenants' admins in one query.
+    @Query("SELECT u.tenant.id, u.email FROM User u WHERE u.tenant.id IN :tenantIds AND u.role = :role")
+    List<Object[]> findEmailsByTenantIdInAndRole(@Param("tenantIds") Collection<Long> tenantIds, @Param("role") String role);
+
+    // Used by PrincipalCache to re-check a token's user without loading the whole entity.
+    @Query("SELECT u.email AS email, u.isActive AS active FROM User u WHERE u.id = :id")
+    Optional<UserStatusView> findStatusById(@Param("id") Long id);
+}
@@ -1,60 +1,237 @@
 package com.gt.visitor_pass_service.repository;
 
+import com.gt.visitor_pass_service.dto.ExpiringPassView;
+import com.gt.visitor_pass_service.model.User;
 import com.gt.visitor_pass_service.model.VisitorPass;
 import com.gt.visitor_pass_service.model.enums.PassStatus; // <-- IMPORT THE ENUM
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface VisitorPassRepository extends JpaRepository<VisitorPass, Long> {
-    
+
+    // NOTE: listing queries whose results go through VisitorPassService.mapToResponse use an entity graph, so
+    // the creator and approver names arrive in the page query itself instead of 2 lazy loads per row.
+    // (The tenant is only read by id, which the lazy proxy already holds.)
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
     Page<VisitorPass> findByTenantIdAndStatus(Long tenantId, PassStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
     Page<VisitorPass> findByTenantId(Long tenantId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
     Page<VisitorPass> findByCreatedById(Long userId, Pageable pageable);
 
     Optional<VisitorPass> findByTenantIdAndPassCode(Long tenantId, String passCode);
 
+    @Query("SELECT vp FROM VisitorPass vp JOIN FETCH vp.createdBy LEFT JOIN FETCH vp.approvedBy WHERE vp.id = :id")
+    Optional<VisitorPass> findWithDetailsById(@Param("id") Long id);
+
+    // --- KEYSET (CURSOR) LISTINGS ---
+    // Newest first on (createdAt, id). Pass a null cursor for the first page; a bound cursor seeks straight
+    // past the previous page through the matching (..., created_at) index, so page N costs the same as page 1.
+    // Ask for size + 1 rows (unsorted PageRequest) to learn whether another page exists without a COUNT.
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId " +
+           "AND (:createdAt IS NULL OR vp.createdAt < :createdAt OR (vp.createdAt = :createdAt AND vp.id < :id)) " +
+           "ORDER BY vp.createdAt DESC, vp.id DESC")
+    List<VisitorPass> findPageByTenantBefore(@Param("tenantId") Long tenantId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.status = :status " +
+           "AND (:createdAt IS NULL OR vp.createdAt < :createdAt OR (vp.createdAt = :createdAt AND vp.id < :id)) " +
+           "ORDER BY vp.createdAt DESC, vp.id DESC")
+    List<VisitorPass> findPageByTenantAndStatusBefore(@Param("tenantId") Long tenantId,
+                                                      @Param("status") PassStatus status,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.createdBy.id = :userId " +
+           "AND (:createdAt IS NULL OR vp.createdAt < :createdAt OR (vp.createdAt = :createdAt AND vp.id < :id)) " +
+           "ORDER BY vp.createdAt DESC, vp.id DESC")
+    List<VisitorPass> findPageByCreatorBefore(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    // --- STATUS TRANSITIONS (PassStateMachine) ---
+    // Compare-and-set: each UPDATE only matches while the pass is still in the expected status and
+    // returns 0 when another request got there first. Bulk updates skip @UpdateTimestamp and @Version,
+    // so both are maintained here.
+    @Transactional
+    @Modifying
+    @Query("UPDATE VisitorPass vp SET vp.status = :to, vp.updatedAt = :now, vp.version = vp.version + 1 " +
+           "WHERE vp.id = :id AND vp.status = :from")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("from") PassStatus from,
+                            @Param("to") PassStatus to,
+                            @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VisitorPass vp SET vp.status = :to, vp.approvedBy = :approver, vp.rejectionReason = :reason, " +
+           "vp.updatedAt = :now, vp.version = vp.version + 1 " +
+           "WHERE vp.id = :id AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.PENDING")
+    int decidePendingPass(@Param("id") Long id,
+                          @Param("to") PassStatus to,
+                          @Param("approver") User approver,
+                          @Param("reason") String reason,
+                          @Param("now") LocalDateTime now);
+
+    // --- BULK APPROVE / REJECT (BulkPassDecisionService) ---
+    @Query("SELECT vp FROM VisitorPass vp JOIN FETCH vp.createdBy WHERE vp.tenant.id = :tenantId AND vp.id IN :ids")
+    List<VisitorPass> findWithCreatorByTenantIdAndIdIn(@Param("tenantId") Long tenantId, @Param("ids") List<Long> ids);
+
+    @Query("SELECT vp.id FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.status = :status " +
+           "AND vp.visitDateTime >= :start AND vp.visitDateTime < :end ORDER BY vp.id")
+    List<Long> findIdsByTenantAndStatusAndVisitBetween(@Param("tenantId") Long tenantId,
+                                                       @Param("status") PassStatus status,
+                                                       @Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end,
+                                                       Pageable pageable);
+
+    // Set-based version of decidePendingPass; runs inside the caller's chunk transaction.
+    @Modifying
+    @Query("UPDATE VisitorPass vp SET vp.status = :to, vp.approvedBy = :approver, vp.rejectionReason = :reason, " +
+           "vp.updatedAt = :now, vp.version = vp.version + 1 " +
+           "WHERE vp.id IN :ids AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.PENDING")
+    int decidePendingPasses(@Param("ids") List<Long> ids,
+                            @Param("to") PassStatus to,
+                            @Param("approver") User approver,
+                            @Param("reason") String reason,
+                            @Param("now") LocalDateTime now);
+
+    // SELECT ... FOR UPDATE of the rows still PENDING, in id order; run first in the chunk transaction. The locks
+    // are held until commit, so decidePendingPasses on exactly these ids moves all of them and nothing else.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT vp.id FROM VisitorPass vp WHERE vp.id IN :ids " +
+           "AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.PENDING ORDER BY vp.id")
+    List<Long> lockPendingPassIds(@Param("ids") List<Long> ids);
+
+    // --- PASS CODE INDEX (PassCodeIndex) ---
+    // Fetch the people mapToResponse reads in the same round trip, so rendering a pass needs no lazy loads.
+    @Query("SELECT vp FROM VisitorPass vp JOIN FETCH vp.createdBy LEFT JOIN FETCH vp.approvedBy " +
+           "WHERE vp.tenant.id = :tenantId AND vp.passCode = :passCode")
+    Optional<VisitorPass> findWithDetailsByTenantIdAndPassCode(@Param("tenantId") Long tenantId, @Param("passCode") String passCode);
+
+    // Keyset-paged load of every pass visiting in [start, end) with one of the given statuses, used to warm the index.
+    @Query("SELECT vp FROM VisitorPass vp JOIN FETCH vp.createdBy LEFT JOIN FETCH vp.approvedBy " +
+           "WHERE vp.visitDateTime >= :start AND vp.visitDateTime < :end AND vp.status IN :statuses AND vp.id > :afterId ORDER BY vp.id")
+    List<VisitorPass> findWithDetailsByVisitDateTimeRange(@Param("start") LocalDateTime start,
+                                                          @Param("end") LocalDateTime end,
+                                                          @Param("statuses") List<PassStatus> statuses,
+                                                          @Param("afterId") Long afterId,
+                                                          Pageable pageable);
+
+    // NOTE: every "today" query below takes a half-open [start, end) range on visitDateTime
+    // instead of wrapping the column in DATE(...), so MySQL can range-scan the
+    // (tenant_id, visit_date_time, status) index rather than scanning the whole table.
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :start AND vp.visitDateTime < :end AND vp.status IN :statuses")
+    Page<VisitorPass> findTodaysVisitorsByTenantAndStatusIn(@Param("tenantId") Long tenantId,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("end") LocalDateTime end,
+                                                             @Param("statuses") List<PassStatus> statuses,
+                                                             Pageable pageable);
 
-    // Add this to VisitorPassRepository.java
-@Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = :date AND vp.status IN :statuses")
-Page<VisitorPass> findTodaysVisitorsByTenantAndStatusIn(Long tenantId, LocalDate date, List<PassStatus> statuses, Pageable pageable);
-   
     // VVV THIS IS THE FIX for PassExpiryService VVV
     // This query now correctly uses the PassStatus enum and compares the full date and time.
     @Query("SELECT vp FROM VisitorPass vp WHERE vp.status = :status AND vp.visitDateTime < :now")
     List<VisitorPass> findOverdueApprovedPasses(@Param("status") PassStatus status, @Param("now") LocalDateTime now);
 
+    // --- BULK EXPIRY (PassExpiryService) ---
+    // Keyset-paged walk over overdue passes: pass the last seen id as afterId and a PageRequest.of(0, chunkSize).
+    @Query("SELECT vp.id AS id, vp.tenant.id AS tenantId, vp.visitorName AS visitorName, vp.visitDateTime AS visitDateTime, vp.createdBy.email AS employeeEmail, vp.passCode AS passCode, vp.version AS version " +
+           "FROM VisitorPass vp WHERE vp.status = :status AND vp.visitDateTime < :now AND vp.id > :afterId ORDER BY vp.id")
+    List<ExpiringPassView> findOverduePassChunk(@Param("status") PassStatus status,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT vp.id AS id, vp.tenant.id AS tenantId, vp.visitorName AS visitorName, vp.visitDateTime AS visitDateTime, vp.createdBy.email AS employeeEmail, vp.passCode AS passCode, vp.version AS version " +
+           "FROM VisitorPass vp WHERE vp.status = :status AND vp.id IN :ids ORDER BY vp.id")
+    List<ExpiringPassView> findExpiringPassesByIdIn(@Param("status") PassStatus status, @Param("ids") List<Long> ids);
+
+    // Returns [id, visitDateTime] pairs, keyset-paged like findOverduePassChunk; used to load expiry deadlines at startup.
+    @Query("SELECT vp.id, vp.visitDateTime FROM VisitorPass vp WHERE vp.status = :status AND vp.id > :afterId ORDER BY vp.id")
+    List<Object[]> findIdAndVisitDateTimeByStatus(@Param("status") PassStatus status, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Conditional set-based expiry: only rows that are still APPROVED are touched.
+    @Modifying
+    @Query("UPDATE VisitorPass vp SET vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.EXPIRED, vp.updatedAt = :expiredAt, vp.version = vp.version + 1 " +
+           "WHERE vp.id IN :ids AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED")
+    int expireApprovedPasses(@Param("ids") List<Long> ids, @Param("expiredAt") LocalDateTime expiredAt);
+
+    // SELECT ... FOR UPDATE SKIP LOCKED of the rows still APPROVED, in id order; run first in the chunk transaction.
+    // Rows another node is expiring right now are skipped rather than waited for, so competing expirers split
+    // the passes between them and expireApprovedPasses on exactly these ids expires all of them.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // Hibernate's LockOptions.SKIP_LOCKED
+    @Query("SELECT vp.id FROM VisitorPass vp WHERE vp.id IN :ids " +
+           "AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED ORDER BY vp.id")
+    List<Long> lockApprovedPassIdsSkipLocked(@Param("ids") List<Long> ids);
+
     // FOR SECURITY DASHBOARD
     // Corrected to use the enum for status checks.
-    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = :date AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_IN)")
-    List<VisitorPass> findTodaysVisitorsByTenant(@Param("tenantId") Long tenantId, @Param("date") LocalDate date);
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :start AND vp.visitDateTime < :end AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_IN)")
+    List<VisitorPass> findTodaysVisitorsByTenant(@Param("tenantId") Long tenantId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     // Corrected to use the enum parameter.
     long countByTenantIdAndStatus(Long tenantId, PassStatus status);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED")
-    long countApprovedForToday(@Param("tenantId") Long tenantId);
+    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :start AND vp.visitDateTime < :end AND vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED")
+    long countApprovedForToday(@Param("tenantId") Long tenantId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_OUT OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.EXPIRED)")
-    long countCompletedForToday(@Param("tenantId") Long tenantId);
+    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :start AND vp.visitDateTime < :end AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_OUT OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.EXPIRED)")
+    long countCompletedForToday(@Param("tenantId") Long tenantId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    // Grouped counts used to reconcile TenantPassCounters; rows are [tenantId, status, count]
+    @Query("SELECT vp.tenant.id, vp.status, COUNT(vp) FROM VisitorPass vp GROUP BY vp.tenant.id, vp.status")
+    List<Object[]> countByTenantAndStatus();
+
+    @Query("SELECT vp.tenant.id, vp.status, COUNT(vp) FROM VisitorPass vp WHERE vp.visitDateTime >= :start AND vp.visitDateTime < :end GROUP BY vp.tenant.id, vp.status")
+    List<Object[]> countByTenantAndStatusForVisitsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
     List<VisitorPass> findTop10ByTenantIdOrderByCreatedAtDesc(Long tenantId);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE DATE(vp.visitDateTime) = CURRENT_DATE AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_IN)")
-    long countActivePassesForToday();
+    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.visitDateTime >= :start AND vp.visitDateTime < :end AND (vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.APPROVED OR vp.status = com.gt.visitor_pass_service.model.enums.PassStatus.CHECKED_IN)")
+    long countActivePassesForToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     long countByTenantId(Long tenantId);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE")
-    long countPassesForTenantToday(@Param("tenantId") Long tenantId);
+    // Rows are [tenantId, passCount]
+    @Query("SELECT vp.tenant.id, COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id IN :tenantIds GROUP BY vp.tenant.id")
+    List<Object[]> countPassesByTenantIdIn(@Param("tenantIds") Collection<Long> tenantIds);
+
+    @Query("SELECT vp.tenant.id, COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id IN :tenantIds AND vp.visitDateTime >= :start AND vp.visitDateTime < :end GROUP BY vp.tenant.id")
+    List<Object[]> countPassesByTenantIdInForVisitsBetween(@Param("tenantIds") Collection<Long> tenantIds,
+                                                           @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :start AND vp.visitDateTime < :end")
+    long countPassesForTenantToday(@Param("tenantId") Long tenantId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    @EntityGraph(attributePaths = {"createdBy", "approvedBy"})
     List<VisitorPass> findTop10ByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+}
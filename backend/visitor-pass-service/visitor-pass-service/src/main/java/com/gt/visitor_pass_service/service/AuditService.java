@@ -2,26 +2,68 @@ package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.model.AuditLog;
 import com.gt.visitor_pass_service.repository.AuditLogRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class AuditService {
 
+    // AuditLog uses IDENTITY ids, so Hibernate cannot batch its inserts; bulk writes go through JDBC instead.
+    private static final String BATCH_INSERT_SQL =
+            "INSERT INTO audit_logs (action_description, user_id, tenant_id, pass_id, timestamp) VALUES (?, ?, ?, ?, ?)";
+
     private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public AuditService(AuditLogRepository auditLogRepository) {
+    public AuditService(AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate) {
         this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public void logEvent(String action, Long userId, Long tenantId, Long passId) {
+        auditLogRepository.save(buildLog(action, userId, tenantId, passId));
+    }
+
+    /**
+     * Writes many audit rows with a single JDBC batch insert.
+     * Runs in the caller's transaction, so the rows commit or roll back with the change they describe.
+     * @param logs The audit rows to insert (ids are ignored)
+     */
+    public void logEvents(List<AuditLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(BATCH_INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getActionDescription());
+            setNullableLong(ps, 2, log.getUserId());
+            setNullableLong(ps, 3, log.getTenantId());
+            setNullableLong(ps, 4, log.getPassId());
+            ps.setTimestamp(5, Timestamp.valueOf(log.getTimestamp()));
+        });
+    }
+
+    public AuditLog buildLog(String action, Long userId, Long tenantId, Long passId) {
         AuditLog log = new AuditLog();
         log.setActionDescription(action);
         log.setUserId(userId);
         log.setTenantId(tenantId);
         log.setPassId(passId);
         log.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(log);
+        return log;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
     }
-}
\ No newline at end of file
+}
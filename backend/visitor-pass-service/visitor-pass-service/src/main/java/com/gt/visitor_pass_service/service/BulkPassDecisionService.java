@@ -0,0 +1,259 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionRequest;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionResponse;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionResponse.PassOutcome;
+import com.gt.visitor_pass_service.dto.PassApprovedEvent;
+import com.gt.visitor_pass_service.dto.PassRejectedEvent;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or rejects many pending passes for one approver in a single request.
+ *
+ * Passes are processed in chunks; each chunk is one short transaction that locks its still-pending rows,
+ * decides exactly those with a single UPDATE and batch-inserts their audit rows, like the expiry job. Events for the chunk are then published
+ * on one channel and confirmed together. Passes another approver decided in the meantime are reported
+ * as NOT_PENDING rather than overwritten.
+ */
+@Service
+public class BulkPassDecisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkPassDecisionService.class);
+    public static final int MAX_PASSES_PER_REQUEST = 1000;
+
+    private final VisitorPassRepository passRepository;
+    private final UserRepository userRepository;
+    private final AuditService auditService;
+    private final RabbitTemplate rabbitTemplate;
+    private final WebSocketUpdateService webSocketUpdateService;
+    private final PassExpiryScheduler passExpiryScheduler;
+    private final PassCodeIndex passCodeIndex;
+    private final TenantPassCounters tenantPassCounters;
+    private final DashboardCache dashboardCache;
+    private final GateRosterFeed gateRosterFeed;
+    private final PassRollupService passRollupService;
+    private final VisitorPassService visitorPassService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long confirmTimeoutMs;
+
+    public BulkPassDecisionService(VisitorPassRepository passRepository,
+                                   UserRepository userRepository,
+                                   AuditService auditService,
+                                   RabbitTemplate rabbitTemplate,
+                                   WebSocketUpdateService webSocketUpdateService,
+                                   PassExpiryScheduler passExpiryScheduler,
+                                   PassCodeIndex passCodeIndex,
+                                   TenantPassCounters tenantPassCounters,
+                                   DashboardCache dashboardCache,
+                                   GateRosterFeed gateRosterFeed,
+                                   PassRollupService passRollupService,
+                                   VisitorPassService visitorPassService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.bulk-decision.chunk-size:100}") int chunkSize,
+                                   @Value("${app.pass-expiry.confirm-timeout-ms:10000}") long confirmTimeoutMs) {
+        this.passRepository = passRepository;
+        this.userRepository = userRepository;
+        this.auditService = auditService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.webSocketUpdateService = webSocketUpdateService;
+        this.passExpiryScheduler = passExpiryScheduler;
+        this.passCodeIndex = passCodeIndex;
+        this.tenantPassCounters = tenantPassCounters;
+        this.dashboardCache = dashboardCache;
+        this.gateRosterFeed = gateRosterFeed;
+        this.passRollupService = passRollupService;
+        this.visitorPassService = visitorPassService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    public BulkPassDecisionResponse decide(Long tenantId, BulkPassDecisionRequest request, String approverEmail) {
+        boolean approve = "APPROVE".equals(request.getAction());
+        if (!approve && (request.getReason() == null || request.getReason().isBlank())) {
+            throw new IllegalArgumentException("A rejection reason is required to reject passes.");
+        }
+        User approver = userRepository.findByEmail(approverEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
+
+        List<Long> passIds = resolvePassIds(tenantId, request);
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+        passIds.forEach(id -> outcomes.put(id, "NOT_FOUND"));
+
+        for (int from = 0; from < passIds.size(); from += chunkSize) {
+            List<Long> chunkIds = passIds.subList(from, Math.min(from + chunkSize, passIds.size()));
+            processChunk(tenantId, chunkIds, approve, approver, request.getReason(), outcomes);
+        }
+
+        String decided = approve ? PassStatus.APPROVED.name() : PassStatus.REJECTED.name();
+        List<PassOutcome> results = outcomes.entrySet().stream()
+                .map(entry -> new PassOutcome(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        int succeeded = (int) results.stream().filter(result -> decided.equals(result.getOutcome())).count();
+        logger.info("Bulk {} by {} for tenant {}: {} of {} passes.", request.getAction(), approverEmail, tenantId, succeeded, passIds.size());
+        return new BulkPassDecisionResponse(request.getAction(), passIds.size(), succeeded, results);
+    }
+
+    private List<Long> resolvePassIds(Long tenantId, BulkPassDecisionRequest request) {
+        if (request.getPassIds() != null && !request.getPassIds().isEmpty()) {
+            List<Long> passIds = new ArrayList<>(new LinkedHashSet<>(request.getPassIds()));
+            if (passIds.size() > MAX_PASSES_PER_REQUEST) {
+                throw new IllegalArgumentException("At most " + MAX_PASSES_PER_REQUEST + " passes can be decided per request.");
+            }
+            return passIds;
+        }
+        if (request.getVisitDateFrom() == null || request.getVisitDateTo() == null) {
+            throw new IllegalArgumentException("Provide either passIds or both visitDateFrom and visitDateTo.");
+        }
+        return passRepository.findIdsByTenantAndStatusAndVisitBetween(tenantId, PassStatus.PENDING,
+                DateRangeUtil.startOfDay(request.getVisitDateFrom()), DateRangeUtil.startOfNextDay(request.getVisitDateTo()),
+                PageRequest.of(0, MAX_PASSES_PER_REQUEST));
+    }
+
+    private void processChunk(Long tenantId, List<Long> chunkIds, boolean approve, User approver, String reason,
+                              Map<Long, String> outcomes) {
+        List<VisitorPass> decided;
+        try {
+            decided = transactionTemplate.execute(status -> decideChunk(tenantId, chunkIds, approve, approver, reason, outcomes));
+        } catch (RuntimeException e) {
+            logger.error("Bulk decision failed for {} passes of tenant {}: {}", chunkIds.size(), tenantId, e.getMessage());
+            chunkIds.forEach(id -> outcomes.put(id, "FAILED"));
+            return;
+        }
+        if (decided == null || decided.isEmpty()) {
+            return;
+        }
+
+        PassStatus target = approve ? PassStatus.APPROVED : PassStatus.REJECTED;
+        for (VisitorPass pass : decided) {
+            // Mirror the committed UPDATE on the detached entity so the index and events see the new state
+            pass.setStatus(target);
+            pass.setApprovedBy(approver);
+            pass.setRejectionReason(approve ? null : reason);
+            pass.setVersion(pass.getVersion() + 1);
+            if (approve) {
+                passExpiryScheduler.schedule(pass.getId(), pass.getVisitDateTime());
+            } else {
+                passExpiryScheduler.cancel(pass.getId());
+            }
+            VisitorPassResponse response = visitorPassService.mapToResponse(pass);
+            passCodeIndex.put(response);
+            gateRosterFeed.onPassChanged(response);
+            passRollupService.onTransition(tenantId, target);
+            tenantPassCounters.onTransition(tenantId, pass.getVisitDateTime(), PassStatus.PENDING, target);
+            webSocketUpdateService.notifyPassChanged(tenantId, pass.getId(), pass.getPassCode(), pass.getVisitorName(),
+                    pass.getVisitDateTime(), PassStatus.PENDING, target);
+        }
+        dashboardCache.invalidateTenant(tenantId);
+        publishDecisionEvents(decided, approve, reason);
+    }
+
+    /**
+     * Decides one chunk and writes its audit rows. Must run inside a transaction.
+     * @return The passes this call actually moved out of PENDING
+     */
+    private List<VisitorPass> decideChunk(Long tenantId, List<Long> chunkIds, boolean approve, User approver, String reason,
+                                          Map<Long, String> outcomes) {
+        List<VisitorPass> pending = new ArrayList<>();
+        for (VisitorPass pass : passRepository.findWithCreatorByTenantIdAndIdIn(tenantId, chunkIds)) {
+            if (pass.getStatus() == PassStatus.PENDING) {
+                pending.add(pass);
+            } else {
+                outcomes.put(pass.getId(), "NOT_PENDING");
+            }
+        }
+        if (pending.isEmpty()) {
+            return pending;
+        }
+
+        PassStatus target = approve ? PassStatus.APPROVED : PassStatus.REJECTED;
+        List<Long> ids = pending.stream().map(VisitorPass::getId).collect(Collectors.toList());
+        // Locked until commit: a concurrent bulk or single decision either already moved a pass (not returned
+        // here) or waits for this transaction and then finds it decided
+        List<Long> lockedIds = passRepository.lockPendingPassIds(ids);
+        Set<Long> decidedIds = new HashSet<>(lockedIds);
+        List<VisitorPass> decided = pending.stream().filter(pass -> decidedIds.contains(pass.getId())).collect(Collectors.toList());
+        if (!lockedIds.isEmpty()) {
+            passRepository.decidePendingPasses(lockedIds, target, approver, approve ? null : reason, LocalDateTime.now());
+        }
+
+        String action = approve ? "PASS_APPROVED" : "PASS_REJECTED";
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (VisitorPass pass : decided) {
+            auditLogs.add(auditService.buildLog(action, approver.getId(), tenantId, pass.getId()));
+        }
+        auditService.logEvents(auditLogs);
+
+        ids.forEach(id -> outcomes.put(id, decidedIds.contains(id) ? target.name() : "NOT_PENDING"));
+        return decided;
+    }
+
+    /**
+     * Publishes the chunk's approved/rejected events on a single channel and waits for the broker to confirm them.
+     * The decisions are already committed, so a failed batch is logged rather than retried.
+     */
+    private void publishDecisionEvents(List<VisitorPass> passes, boolean approve, String reason) {
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (VisitorPass pass : passes) {
+                    if (approve) {
+                        PassApprovedEvent event = new PassApprovedEvent(
+                                pass.getId(),
+                                pass.getTenant().getId(),
+                                pass.getVisitorName(),
+                                pass.getVisitorEmail(),
+                                pass.getCreatedBy().getEmail(),
+                                pass.getPassCode(),
+                                pass.getVisitDateTime(),
+                                pass.getCreatedBy().getName()
+                        );
+                        operations.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_APPROVED, event);
+                    } else {
+                        PassRejectedEvent event = new PassRejectedEvent(
+                                pass.getId(),
+                                pass.getVisitorName(),
+                                pass.getVisitorEmail(),
+                                pass.getCreatedBy().getEmail(),
+                                reason
+                        );
+                        operations.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_REJECTED, event);
+                    }
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+        } catch (AmqpException e) {
+            logger.error("Failed to publish {} decision notifications for {} passes: {}",
+                    approve ? "approval" : "rejection", passes.size(), e.getMessage());
+        }
+    }
+}
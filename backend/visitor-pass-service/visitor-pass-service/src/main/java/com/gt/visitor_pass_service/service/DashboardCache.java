@@ -0,0 +1,134 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.TenantDashboardResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches the rendered Tenant Admin dashboard per tenant, with an ETag.
+ *
+ * Every pass transition calls invalidateTenant, which bumps that tenant's version, so the next request
+ * recomputes, and the global version, which tells SuperAdminDashboardSnapshot its snapshot is out of date. Entries also expire after app.dashboard.cache-ttl-ms, which covers what no pass
+ * transition signals (email activity, new users, the day rolling over). A response computed while an invalidation
+ * happened is returned but not cached, and a tenant dashboard with stale sections is never cached.
+ */
+@Service
+public class DashboardCache {
+
+    private final long ttlMs;
+    private final Map<Long, Slot<TenantDashboardResponse>> tenantDashboards = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    public DashboardCache(@Value("${app.dashboard.cache-ttl-ms:30000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public Cached<TenantDashboardResponse> getTenantDashboard(Long tenantId, Supplier<TenantDashboardResponse> loader) {
+        return tenantSlot(tenantId).get(loader, response -> response.getStaleSections() == null || response.getStaleSections().isEmpty());
+    }
+
+    /**
+     * @return The ETag of the tenant's cached dashboard if it is still valid, otherwise null
+     */
+    public String getTenantDashboardETag(Long tenantId) {
+        return tenantSlot(tenantId).currentETag();
+    }
+
+    /**
+     * @return A counter that moves on every invalidation of any tenant
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * Drops the tenant's dashboard and bumps the global version. Called after a pass of the tenant changed.
+     */
+    public void invalidateTenant(Long tenantId) {
+        if (tenantId != null) {
+            tenantSlot(tenantId).invalidate();
+        }
+        globalVersion.incrementAndGet();
+    }
+
+    /**
+     * @return true if the If-None-Match header lists the given ETag (or is "*")
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Slot<TenantDashboardResponse> tenantSlot(Long tenantId) {
+        return tenantDashboards.computeIfAbsent(tenantId, id -> new Slot<>("tenant-" + id));
+    }
+
+    public record Cached<T>(T value, String eTag) {
+    }
+
+    private class Slot<T> {
+
+        private final String name;
+        private final AtomicLong version = new AtomicLong();
+        private volatile Entry<T> entry;
+
+        Slot(String name) {
+            this.name = name;
+        }
+
+        Cached<T> get(Supplier<T> loader, Predicate<T> cacheable) {
+            Entry<T> current = validEntry();
+            if (current != null) {
+                return current.cached;
+            }
+            long loadedVersion = version.get();
+            T value = loader.get();
+            long createdAt = System.currentTimeMillis();
+            Entry<T> loaded = new Entry<>(loadedVersion, createdAt,
+                    new Cached<>(value, "\"" + name + "-" + loadedVersion + "-" + Long.toHexString(createdAt) + "\""));
+            if (cacheable.test(value) && version.get() == loadedVersion) {
+                entry = loaded;
+            }
+            return loaded.cached;
+        }
+
+        String currentETag() {
+            Entry<T> current = validEntry();
+            return current != null ? current.cached.eTag() : null;
+        }
+
+        void invalidate() {
+            version.incrementAndGet();
+            entry = null;
+        }
+
+        private Entry<T> validEntry() {
+            Entry<T> current = entry;
+            if (current == null || current.version != version.get()
+                    || System.currentTimeMillis() - current.createdAt >= ttlMs) {
+                return null;
+            }
+            return current;
+        }
+    }
+
+    private record Entry<T>(long version, long createdAt, Cached<T> cached) {
+    }
+}
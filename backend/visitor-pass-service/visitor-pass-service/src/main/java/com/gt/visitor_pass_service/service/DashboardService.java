@@ -8,53 +8,138 @@ import com.gt.visitor_pass_service.model.AuditLog;
 import com.gt.visitor_pass_service.model.enums.PassStatus; // <-- IMPORT THE ENUM
 import com.gt.visitor_pass_service.repository.AuditLogRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+/**
+ * Builds the Tenant Admin dashboard. Its four sections are loaded concurrently on virtual threads, so the
+ * dashboard takes as long as its slowest section rather than the sum of all four. Every section has a deadline
+ * (app.dashboard.section-deadline-ms, and app.dashboard.email-activity-deadline-ms for the call to the
+ * notification-service, which needs the recent passes first). A section that fails or misses its deadline
+ * is returned empty and named in the response's staleSections.
+ */
 @Service
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    public static final String SECTION_STATS = "stats";
+    public static final String SECTION_RECENT_PASSES = "recentPasses";
+    public static final String SECTION_RECENT_PASS_ACTIVITY = "recentPassActivity";
+    public static final String SECTION_RECENT_EMAIL_ACTIVITY = "recentEmailActivity";
+
     private final VisitorPassRepository passRepository;
     private final AuditLogRepository auditLogRepository;
     private final VisitorPassService visitorPassService; // For the mapper
+    private final TenantPassCounters tenantPassCounters;
     private final WebClient webClient;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long sectionDeadlineMs;
+    private final long emailActivityDeadlineMs;
 
     public DashboardService(VisitorPassRepository passRepository,
                             AuditLogRepository auditLogRepository,
                             VisitorPassService visitorPassService,
-                            @Value("${services.notification.base-url}") String notificationServiceUrl) {
+                            TenantPassCounters tenantPassCounters,
+                            @Value("${services.notification.base-url}") String notificationServiceUrl,
+                            @Value("${app.dashboard.section-deadline-ms:2000}") long sectionDeadlineMs,
+                            @Value("${app.dashboard.email-activity-deadline-ms:1500}") long emailActivityDeadlineMs) {
         this.passRepository = passRepository;
         this.auditLogRepository = auditLogRepository;
         this.visitorPassService = visitorPassService;
+        this.tenantPassCounters = tenantPassCounters;
         this.webClient = WebClient.create(notificationServiceUrl);
+        this.sectionDeadlineMs = sectionDeadlineMs;
+        this.emailActivityDeadlineMs = emailActivityDeadlineMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
     public TenantDashboardResponse getTenantDashboardData(Long tenantId) {
-        TenantDashboardStats stats = getStats(tenantId);
-        List<VisitorPassResponse> recentPasses = getRecentPasses(tenantId);
-        List<AuditLog> recentPassActivity = getRecentPassActivity(tenantId);
-        List<EmailAuditLogResponse> recentEmailActivity = getRecentEmailActivity(recentPasses);
+        Set<String> staleSections = ConcurrentHashMap.newKeySet();
+
+        CompletableFuture<TenantDashboardStats> stats = section(SECTION_STATS, staleSections, sectionDeadlineMs,
+                TenantDashboardStats.builder().build(), CompletableFuture.supplyAsync(() -> getStats(tenantId), executor));
+        CompletableFuture<List<VisitorPassResponse>> recentPassesLoad = CompletableFuture.supplyAsync(() -> getRecentPasses(tenantId), executor);
+        CompletableFuture<List<VisitorPassResponse>> recentPasses = section(SECTION_RECENT_PASSES, staleSections, sectionDeadlineMs,
+                Collections.emptyList(), recentPassesLoad);
+        CompletableFuture<List<AuditLog>> recentPassActivity = section(SECTION_RECENT_PASS_ACTIVITY, staleSections, sectionDeadlineMs,
+                Collections.emptyList(), CompletableFuture.supplyAsync(() -> getRecentPassActivity(tenantId), executor));
+        // The email section starts as soon as the recent passes are in; its deadline still counts from now
+        CompletableFuture<List<EmailAuditLogResponse>> recentEmailActivity = section(SECTION_RECENT_EMAIL_ACTIVITY, staleSections,
+                emailActivityDeadlineMs, Collections.emptyList(), recentPassesLoad.thenComposeAsync(this::getRecentEmailActivity, executor));
 
+        CompletableFuture.allOf(stats, recentPasses, recentPassActivity, recentEmailActivity).join();
         return TenantDashboardResponse.builder()
-                .stats(stats)
-                .recentPasses(recentPasses)
-                .recentPassActivity(recentPassActivity)
-                .recentEmailActivity(recentEmailActivity)
+                .stats(stats.join())
+                .recentPasses(recentPasses.join())
+                .recentPassActivity(recentPassActivity.join())
+                .recentEmailActivity(recentEmailActivity.join())
+                .staleSections(staleSections.stream().sorted().collect(Collectors.toList()))
                 .build();
     }
 
+    /**
+     * Bounds a section by its deadline. On failure or timeout the section completes with the fallback and is marked stale.
+     */
+    private <T> CompletableFuture<T> section(String name, Set<String> staleSections, long deadlineMs, T fallback,
+                                             CompletableFuture<T> load) {
+        // copy() so the timeout does not complete the shared load itself (the email section chains off the recent passes)
+        return load.copy().orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        logger.warn("Dashboard section '{}' missed its {} ms deadline.", name, deadlineMs);
+                    } else {
+                        logger.error("Dashboard section '{}' failed: {}", name, cause.getMessage());
+                    }
+                    staleSections.add(name);
+                    return fallback;
+                });
+    }
+
+    /**
+     * Served from the in-memory TenantPassCounters; the COUNT queries only run until the counters
+     * have been reconciled for the current day.
+     */
     private TenantDashboardStats getStats(Long tenantId) {
+        TenantDashboardStats stats = tenantPassCounters.getStats(tenantId);
+        return stats != null ? stats : countStats(tenantId);
+    }
+
+    private TenantDashboardStats countStats(Long tenantId) {
         // VVV THESE ARE THE FIXES VVV
         long pending = passRepository.countByTenantIdAndStatus(tenantId, PassStatus.PENDING);
         long checkedIn = passRepository.countByTenantIdAndStatus(tenantId, PassStatus.CHECKED_IN);
 
-        long approvedToday = passRepository.countApprovedForToday(tenantId);
-        long completedToday = passRepository.countCompletedForToday(tenantId);
+        LocalDate today = LocalDate.now();
+        LocalDateTime startOfDay = DateRangeUtil.startOfDay(today);
+        LocalDateTime startOfNextDay = DateRangeUtil.startOfNextDay(today);
+        long approvedToday = passRepository.countApprovedForToday(tenantId, startOfDay, startOfNextDay);
+        long completedToday = passRepository.countCompletedForToday(tenantId, startOfDay, startOfNextDay);
 
         return TenantDashboardStats.builder()
                 .pendingPasses(pending)
@@ -75,27 +160,21 @@ public class DashboardService {
         return auditLogRepository.findTop10ByTenantIdAndPassIdIsNotNullOrderByTimestampDesc(tenantId);
     }
 
-    private List<EmailAuditLogResponse> getRecentEmailActivity(List<VisitorPassResponse> recentPasses) {
+    private CompletableFuture<List<EmailAuditLogResponse>> getRecentEmailActivity(List<VisitorPassResponse> recentPasses) {
         if (recentPasses == null || recentPasses.isEmpty()) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         List<Long> passIds = recentPasses.stream().map(VisitorPassResponse::getId).collect(Collectors.toList());
 
-        // Make an API call to the notification-service
-        try {
-            return webClient.post()
-                    .uri("/api/internal/email-logs/by-pass-ids")
-                    .bodyValue(passIds)
-                    .retrieve()
-                    .bodyToFlux(EmailAuditLogResponse.class)
-                    .collectList()
-                    .block(); // Using block for simplicity; reactive is better for high load
-        } catch (Exception e) {
-            // Log the error and return an empty list to prevent dashboard from failing
-            // In a real app, you would have more robust error handling here
-            System.err.println("Error fetching email activity from notification-service: " + e.getMessage());
-            return Collections.emptyList();
-        }
+        // Make an API call to the notification-service; errors and the deadline are handled by section()
+        return webClient.post()
+                .uri("/api/internal/email-logs/by-pass-ids")
+                .bodyValue(passIds)
+                .retrieve()
+                .bodyToFlux(EmailAuditLogResponse.class)
+                .collectList()
+                .timeout(Duration.ofMillis(emailActivityDeadlineMs)) // also cancels the HTTP call
+                .toFuture();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Live feed of today's gate roster (APPROVED and CHECKED_IN passes visiting today) as Server-Sent Events.
+ *
+ * A new subscriber gets one "roster" event with the whole list, then one "pass" event per change of a pass
+ * visiting today (created, approved, rejected, checked in or out, expired), carrying the pass in its new status.
+ * While a tenant has subscribers its roster is kept in memory and updated from those changes, so further
+ * subscribers and reconnects are served without a query; it is dropped with the last subscriber. Streams end
+ * after app.gate-feed.emitter-timeout-ms and the client reconnects, which also picks up a new day's roster.
+ *
+ * Changes are also published to /topic/gate/{tenantId} through WebSocketClusterRelay, and changes relayed
+ * from other nodes are applied here, so a gate connected to any node sees every change. All sends happen
+ * in order on one "gate-feed" thread, which also writes a comment every app.gate-feed.heartbeat-ms so proxies
+ * keep idle streams open.
+ */
+@Service
+public class GateRosterFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(GateRosterFeed.class);
+    private static final String TOPIC_PREFIX = "/topic/gate/";
+    private static final Set<String> ROSTER_STATUSES = Set.of(PassStatus.APPROVED.name(), PassStatus.CHECKED_IN.name());
+
+    private final WebSocketClusterRelay relay;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final Map<Long, TenantFeed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gate-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public GateRosterFeed(WebSocketClusterRelay relay,
+                          ObjectMapper objectMapper,
+                          @Value("${app.gate-feed.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                          @Value("${app.gate-feed.heartbeat-ms:25000}") long heartbeatMs) {
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        relay.addRelayedListener(TOPIC_PREFIX, this::onRelayedChange);
+        sender.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        feeds.values().forEach(feed -> feed.subscribers.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Opens a stream for the tenant's gate roster.
+     * @param rosterLoader Loads today's roster from the database; only called if this node holds none for the tenant
+     */
+    public SseEmitter subscribe(Long tenantId, Function<Long, List<VisitorPassResponse>> rosterLoader) {
+        SseEmitter emitter = newEmitter();
+        while (!tryAdd(tenantId, emitter, rosterLoader)) {
+            // The last subscriber left and closed the feed in between; start a fresh one
+        }
+        emitter.onCompletion(() -> unsubscribe(tenantId, emitter));
+        emitter.onTimeout(() -> unsubscribe(tenantId, emitter));
+        emitter.onError(error -> unsubscribe(tenantId, emitter));
+        return emitter;
+    }
+
+    private boolean tryAdd(Long tenantId, SseEmitter emitter, Function<Long, List<VisitorPassResponse>> rosterLoader) {
+        TenantFeed feed = feeds.computeIfAbsent(tenantId, id -> new TenantFeed());
+        synchronized (feed) {
+            if (feed.closed) {
+                return false;
+            }
+            if (!LocalDate.now().equals(feed.day)) {
+                feed.roster.clear();
+                rosterLoader.apply(tenantId).forEach(pass -> feed.roster.put(pass.getId(), pass));
+                feed.day = LocalDate.now();
+            }
+            feed.subscribers.add(emitter);
+            List<VisitorPassResponse> roster = new ArrayList<>(feed.roster.values());
+            sender.execute(() -> send(tenantId, emitter, SseEmitter.event().name("roster").data(roster)));
+            return true;
+        }
+    }
+
+    /**
+     * Reports the new state of a pass after a committed change, to this node's subscribers and to the other nodes.
+     */
+    public void onPassChanged(VisitorPassResponse pass) {
+        if (pass == null || pass.getTenantId() == null || !visitsToday(pass)) {
+            return;
+        }
+        apply(pass);
+        relay.send(TOPIC_PREFIX + pass.getTenantId(), pass);
+    }
+
+    int subscriberCount(Long tenantId) {
+        TenantFeed feed = feeds.get(tenantId);
+        return feed != null ? feed.subscribers.size() : 0;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    private void onRelayedChange(String destination, String payloadJson) {
+        try {
+            VisitorPassResponse pass = objectMapper.readValue(payloadJson, VisitorPassResponse.class);
+            if (pass.getTenantId() != null && visitsToday(pass)) {
+                apply(pass);
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Ignoring unreadable relayed gate change for {}: {}", destination, e.getMessage());
+        }
+    }
+
+    private void apply(VisitorPassResponse pass) {
+        TenantFeed feed = feeds.get(pass.getTenantId());
+        if (feed == null) {
+            return;
+        }
+        synchronized (feed) {
+            if (ROSTER_STATUSES.contains(pass.getStatus())) {
+                feed.roster.put(pass.getId(), pass);
+            } else {
+                feed.roster.remove(pass.getId());
+            }
+            for (SseEmitter emitter : feed.subscribers) {
+                sender.execute(() -> send(pass.getTenantId(), emitter, SseEmitter.event().name("pass").data(pass)));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        feeds.forEach((tenantId, feed) -> feed.subscribers.forEach(emitter ->
+                send(tenantId, emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void send(Long tenantId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container reports it through onError/onCompletion as well
+            unsubscribe(tenantId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long tenantId, SseEmitter emitter) {
+        feeds.computeIfPresent(tenantId, (id, feed) -> {
+            synchronized (feed) {
+                feed.subscribers.remove(emitter);
+                feed.closed = feed.subscribers.isEmpty();
+                return feed.closed ? null : feed;
+            }
+        });
+    }
+
+    private boolean visitsToday(VisitorPassResponse pass) {
+        return pass.getVisitDateTime() != null && pass.getVisitDateTime().toLocalDate().equals(LocalDate.now());
+    }
+
+    /**
+     * One tenant's subscribers and, while it has any, its roster. Guarded by its own monitor.
+     */
+    private static class TenantFeed {
+
+        private final Map<Long, VisitorPassResponse> roster = new LinkedHashMap<>();
+        private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+        private LocalDate day;
+        private boolean closed;
+    }
+}
@@ -0,0 +1,226 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-memory, per-tenant index of pass code -> pre-rendered VisitorPassResponse for today's and
+ * tomorrow's passes that can still be scanned at the gate (PENDING, APPROVED, CHECKED_IN).
+ *
+ * VisitorPassService keeps it current on every pass transition and PassExpiryService removes
+ * expired passes, so a gate scan is served without touching the database. Each tenant's index
+ * is an LRU map capped at app.pass-code-index.max-entries-per-tenant; anything evicted or
+ * not yet indexed is simply a miss and is read through from the database.
+ *
+ * Entries carry the pass's row version, and an update never replaces a newer one, so a read-through that loaded
+ * a pass just before a transition cannot put the old state back (putIfAbsent also leaves any live entry alone).
+ * A pass that is no longer scannable leaves a tombstone with its version for the same reason; lookups miss it.
+ *
+ * Transitions made on other nodes are not seen directly. With the cluster relay on, the changes of today's
+ * passes that GateRosterFeed relays on /topic/gate/ turn the entry into a tombstone, so the next scan reads it
+ * afresh. As a bound for everything else (tomorrow's passes, or several nodes without the relay), an entry is
+ * only served for app.pass-code-index.max-age-ms after it was indexed.
+ */
+@Service
+public class PassCodeIndex {
+
+    private static final Set<String> INDEXED_STATUSES = Set.of(
+            PassStatus.PENDING.name(), PassStatus.APPROVED.name(), PassStatus.CHECKED_IN.name());
+
+    private static final Logger logger = LoggerFactory.getLogger(PassCodeIndex.class);
+    private static final String RELAYED_CHANGES_PREFIX = "/topic/gate/";
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntriesPerTenant;
+    private final long maxAgeMs;
+    private final Map<Long, TenantIndex> tenants = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PassCodeIndex(WebSocketClusterRelay relay,
+                         ObjectMapper objectMapper,
+                         @Value("${app.pass-code-index.max-entries-per-tenant:2000}") int maxEntriesPerTenant,
+                         @Value("${app.pass-code-index.max-age-ms:60000}") long maxAgeMs) {
+        this.objectMapper = objectMapper;
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.maxAgeMs = maxAgeMs;
+        relay.addRelayedListener(RELAYED_CHANGES_PREFIX, this::onRelayedChange);
+    }
+
+    /**
+     * Looks up a pass by code.
+     * @return The cached response, or null on a miss (caller falls back to the database)
+     */
+    public VisitorPassResponse get(Long tenantId, String passCode) {
+        TenantIndex index = tenants.get(tenantId);
+        Entry entry = index != null ? index.get(passCode) : null;
+        if (entry != null && (isExpired(entry, System.currentTimeMillis())
+                || (entry.response() != null && !isIndexable(entry.response())))) {
+            // It may have changed on another node since it was indexed, or the day rolled over
+            index.remove(passCode);
+            entry = null;
+        }
+        if (entry == null || entry.response() == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response();
+    }
+
+    /**
+     * Indexes the state of a pass after a transition, or leaves a tombstone if it is no longer scannable today or
+     * tomorrow, unless a newer version is already indexed.
+     */
+    public void put(VisitorPassResponse response) {
+        index(response, false);
+    }
+
+    /**
+     * Indexes a pass read from the database on a miss, unless it got indexed meanwhile or a newer version is known.
+     */
+    public void putIfAbsent(VisitorPassResponse response) {
+        index(response, true);
+    }
+
+    public void remove(Long tenantId, String passCode) {
+        TenantIndex index = tenants.get(tenantId);
+        if (index != null && passCode != null) {
+            index.remove(passCode);
+        }
+    }
+
+    private void index(VisitorPassResponse response, boolean ifAbsent) {
+        if (response == null || response.getTenantId() == null || response.getPassCode() == null) {
+            return;
+        }
+        Entry entry = new Entry(isIndexable(response) ? response : null, versionOf(response), System.currentTimeMillis());
+        tenants.computeIfAbsent(response.getTenantId(), id -> new TenantIndex()).putUnlessNewer(response.getPassCode(), entry, ifAbsent);
+    }
+
+    private void onRelayedChange(String destination, String payloadJson) {
+        try {
+            JsonNode pass = objectMapper.readTree(payloadJson);
+            if (!pass.hasNonNull("tenantId") || !pass.hasNonNull("passCode")) {
+                return;
+            }
+            Long tenantId = pass.get("tenantId").asLong();
+            String passCode = pass.get("passCode").asText();
+            if (pass.hasNonNull("version")) {
+                tenants.computeIfAbsent(tenantId, id -> new TenantIndex())
+                        .putUnlessNewer(passCode, new Entry(null, pass.get("version").asLong(), System.currentTimeMillis()), false);
+            } else {
+                remove(tenantId, passCode);
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Ignoring unreadable relayed pass change for {}: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops every entry whose visit date is no longer today or tomorrow.
+     */
+    public void evictStaleEntries() {
+        tenants.values().forEach(index -> index.removeIf(entry -> entry.response() == null || !isIndexable(entry.response())));
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tenants", tenants.size());
+        stats.put("entries", tenants.values().stream().mapToInt(TenantIndex::liveSize).sum());
+        stats.put("maxEntriesPerTenant", maxEntriesPerTenant);
+        stats.put("maxAgeMs", maxAgeMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.indexedAtMillis() > maxAgeMs;
+    }
+
+    private static long versionOf(VisitorPassResponse response) {
+        return response.getVersion() != null ? response.getVersion() : -1L;
+    }
+
+    private boolean isIndexable(VisitorPassResponse response) {
+        if (response.getVisitDateTime() == null || !INDEXED_STATUSES.contains(response.getStatus())) {
+            return false;
+        }
+        LocalDate visitDate = response.getVisitDateTime().toLocalDate();
+        LocalDate today = LocalDate.now();
+        return !visitDate.isBefore(today) && !visitDate.isAfter(today.plusDays(1));
+    }
+
+    /**
+     * Access-ordered LRU map for one tenant. LinkedHashMap reorders on get, so every access is synchronized.
+     */
+    private class TenantIndex {
+
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntriesPerTenant) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        synchronized Entry get(String passCode) {
+            return entries.get(passCode);
+        }
+
+        /**
+         * Keeps an unexpired entry of a newer version, and with ifAbsent any unexpired live entry.
+         */
+        synchronized void putUnlessNewer(String passCode, Entry entry, boolean ifAbsent) {
+            Entry existing = entries.get(passCode);
+            if (existing != null && !isExpired(existing, entry.indexedAtMillis())
+                    && (existing.version() > entry.version() || (ifAbsent && existing.response() != null))) {
+                return;
+            }
+            entries.put(passCode, entry);
+        }
+
+        synchronized void remove(String passCode) {
+            entries.remove(passCode);
+        }
+
+        synchronized void removeIf(Predicate<Entry> predicate) {
+            entries.values().removeIf(predicate);
+        }
+
+        synchronized int liveSize() {
+            return (int) entries.values().stream().filter(entry -> entry.response() != null).count();
+        }
+    }
+
+    // response is null for a tombstone
+    private record Entry(VisitorPassResponse response, long version, long indexedAtMillis) {
+    }
+}
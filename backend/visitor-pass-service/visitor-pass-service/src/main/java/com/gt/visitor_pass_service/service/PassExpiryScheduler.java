@@ -0,0 +1,193 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the upcoming expiry deadline (visitDateTime + grace period) of every 'APPROVED' pass in a DelayQueue,
+ * and expires passes shortly after their deadline instead of waiting for the nightly 1 AM job.
+ *
+ * Deadlines are loaded at startup and kept current by VisitorPassService: approving a pass schedules it,
+ * checking it in or rejecting it cancels it. Cancellation is lazy: the map holds the live deadline per pass
+ * and stale queue entries are skipped when they come due. Expiry itself goes through
+ * PassExpiryService's conditional UPDATE, so a stale or duplicate deadline can never expire a pass
+ * that has already moved on.
+ *
+ * The due deadlines are polled on a thread of their own rather than by @Scheduled, whose single shared
+ * scheduler thread also runs the nightly sweeps and backfills and would hold the poll up for their duration.
+ */
+@Service
+public class PassExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassExpiryScheduler.class);
+    private static final long RETRY_DELAY_MS = 60_000L;
+
+    private final PassExpiryService passExpiryService;
+    private final VisitorPassRepository passRepository;
+    private final int chunkSize;
+    private final long pollIntervalMs;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pass-expiry-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final DelayQueue<ExpiryDeadline> queue = new DelayQueue<>();
+    private final Map<Long, ExpiryDeadline> deadlinesByPassId = new ConcurrentHashMap<>();
+
+    public PassExpiryScheduler(PassExpiryService passExpiryService,
+                               VisitorPassRepository passRepository,
+                               @Value("${app.pass-expiry.chunk-size:500}") int chunkSize,
+                               @Value("${app.pass-expiry.poll-interval-ms:15000}") long pollIntervalMs) {
+        this.passExpiryService = passExpiryService;
+        this.passRepository = passRepository;
+        this.chunkSize = chunkSize;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Loads the deadlines of all currently 'APPROVED' passes once the application is up, then starts polling.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            loadApprovedPasses();
+        } finally {
+            poller.scheduleWithFixedDelay(this::pollDuePasses, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void loadApprovedPasses() {
+        long lastSeenId = 0L;
+        int loaded = 0;
+        List<Object[]> page;
+        do {
+            page = passRepository.findIdAndVisitDateTimeByStatus(PassStatus.APPROVED, lastSeenId, PageRequest.of(0, chunkSize));
+            for (Object[] row : page) {
+                schedule((Long) row[0], (LocalDateTime) row[1]);
+                lastSeenId = (Long) row[0];
+            }
+            loaded += page.size();
+        } while (page.size() == chunkSize);
+        logger.info("Loaded expiry deadlines for {} approved passes.", loaded);
+    }
+
+    /**
+     * Schedules (or reschedules) expiry of an approved pass.
+     * @param passId The pass ID
+     * @param visitDateTime The visit time; the pass expires one grace period after it
+     */
+    public void schedule(Long passId, LocalDateTime visitDateTime) {
+        if (passId == null || visitDateTime == null) {
+            return;
+        }
+        LocalDateTime expiresAt = visitDateTime.plus(passExpiryService.getGracePeriod());
+        long deadlineMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ExpiryDeadline deadline = new ExpiryDeadline(passId, deadlineMillis);
+        deadlinesByPassId.put(passId, deadline);
+        queue.offer(deadline);
+    }
+
+    /**
+     * Cancels a pending expiry, e.g. because the pass was checked in or rejected.
+     * @param passId The pass ID
+     */
+    public void cancel(Long passId) {
+        if (passId != null) {
+            deadlinesByPassId.remove(passId);
+        }
+    }
+
+    private void pollDuePasses() {
+        try {
+            expireDuePasses();
+        } catch (RuntimeException e) {
+            // An exception escaping here would cancel all further polls
+            logger.error("Failed to poll due pass expiries: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drains every deadline that has fallen due and expires those passes in chunks.
+     */
+    public void expireDuePasses() {
+        List<Long> due = new ArrayList<>();
+        ExpiryDeadline deadline;
+        while ((deadline = queue.poll()) != null) {
+            // Skip entries that were cancelled or superseded by a later schedule() call
+            if (deadlinesByPassId.remove(deadline.passId(), deadline)) {
+                due.add(deadline.passId());
+            }
+            if (due.size() == chunkSize) {
+                if (!expire(due)) {
+                    return;
+                }
+                due = new ArrayList<>();
+            }
+        }
+        expire(due);
+    }
+
+    public int getPendingCount() {
+        return deadlinesByPassId.size();
+    }
+
+    private boolean expire(List<Long> passIds) {
+        if (passIds.isEmpty()) {
+            return true;
+        }
+        try {
+            int expired = passExpiryService.expirePasses(passIds);
+            logger.info("Expired {} of {} passes whose deadline has passed.", expired, passIds.size());
+            return true;
+        } catch (RuntimeException e) {
+            // Put them back a little later; the nightly sweep remains the last resort
+            logger.error("Failed to expire {} due passes, retrying in {} ms: {}", passIds.size(), RETRY_DELAY_MS, e.getMessage());
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+            passIds.forEach(passId -> deadlinesByPassId.computeIfAbsent(passId, id -> {
+                ExpiryDeadline retry = new ExpiryDeadline(id, retryAt);
+                queue.offer(retry);
+                return retry;
+            }));
+            return false;
+        }
+    }
+
+    private record ExpiryDeadline(Long passId, long deadlineMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMillis, ((ExpiryDeadline) other).deadlineMillis);
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.ExpiringPassView;
 import com.gt.visitor_pass_service.dto.PassExpiredEvent;
-import com.gt.visitor_pass_service.model.User;
-import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.AuditLog;
 import com.gt.visitor_pass_service.model.enums.PassStatus; // <-- IMPORT THE ENUM
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class PassExpiryService {
@@ -27,68 +37,208 @@ public class PassExpiryService {
     private final AuditService auditService;
     private final RabbitTemplate rabbitTemplate;
     private final UserRepository userRepository;
-
-    public PassExpiryService(VisitorPassRepository passRepository, AuditService auditService, RabbitTemplate rabbitTemplate, UserRepository userRepository) {
+    private final PassCodeIndex passCodeIndex;
+    private final TenantPassCounters tenantPassCounters;
+    private final DashboardCache dashboardCache;
+    private final WebSocketUpdateService webSocketUpdateService;
+    private final GateRosterFeed gateRosterFeed;
+    private final PassRollupService passRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long confirmTimeoutMs;
+    private final Duration gracePeriod;
+
+    public PassExpiryService(VisitorPassRepository passRepository,
+                             AuditService auditService,
+                             RabbitTemplate rabbitTemplate,
+                             UserRepository userRepository,
+                             PassCodeIndex passCodeIndex,
+                             TenantPassCounters tenantPassCounters,
+                             DashboardCache dashboardCache,
+                             WebSocketUpdateService webSocketUpdateService,
+                             GateRosterFeed gateRosterFeed,
+                             PassRollupService passRollupService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.pass-expiry.chunk-size:500}") int chunkSize,
+                             @Value("${app.pass-expiry.confirm-timeout-ms:10000}") long confirmTimeoutMs,
+                             @Value("${app.pass-expiry.grace-period:PT2H}") Duration gracePeriod) {
         this.passRepository = passRepository;
         this.auditService = auditService;
         this.rabbitTemplate = rabbitTemplate;
         this.userRepository = userRepository;
+        this.passCodeIndex = passCodeIndex;
+        this.tenantPassCounters = tenantPassCounters;
+        this.dashboardCache = dashboardCache;
+        this.webSocketUpdateService = webSocketUpdateService;
+        this.gateRosterFeed = gateRosterFeed;
+        this.passRollupService = passRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.gracePeriod = gracePeriod;
     }
 
     /**
      * A scheduled task that runs automatically every day at 1 AM.
-     * It finds all visitor passes with an 'APPROVED' status for dates before today and expires them.
+     * Passes are normally expired through the day by PassExpiryScheduler; this nightly sweep is the
+     * safety net for anything it missed (e.g. deadlines lost across a restart on another node).
+     * It walks all 'APPROVED' passes whose visit time plus the grace period has passed in id order, one chunk at a time.
+     * Each chunk's rows are locked and expired with a single UPDATE and its audit rows are batch-inserted
+     * in the same short transaction, so a failure part-way through only loses the current chunk;
+     * re-running the job simply picks up the passes that are still 'APPROVED'.
      */
     @Scheduled(cron = "0 0 1 * * ?") // Runs every day at 1:00 AM
-    @Transactional
     public void expireOldPasses() {
         logger.info("Running scheduled job: Expiring old visitor passes...");
-        // Assuming findOverdueApprovedPasses correctly finds passes with status APPROVED
-        // and a visitDateTime in the past.
-       List<VisitorPass> passesToExpire = passRepository.findOverdueApprovedPasses(PassStatus.APPROVED, LocalDateTime.now());
-
-        if (passesToExpire.isEmpty()) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        Map<Long, String> tenantAdminEmails = new HashMap<>(); // resolved once per tenant for the whole run
+
+        long lastSeenId = 0L;
+        int totalExpired = 0;
+        List<ExpiringPassView> chunk;
+        do {
+            chunk = passRepository.findOverduePassChunk(PassStatus.APPROVED, cutoff, lastSeenId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastSeenId = chunk.get(chunk.size() - 1).getId();
+
+            totalExpired += processChunk(chunk, tenantAdminEmails);
+        } while (chunk.size() == chunkSize);
+
+        if (totalExpired == 0) {
             logger.info("No overdue passes to expire.");
             return;
         }
+        logger.info("Successfully expired {} passes.", totalExpired);
+    }
 
-        for (VisitorPass pass : passesToExpire) {
-            // VVV THIS IS THE FIX VVV
-            pass.setStatus(PassStatus.EXPIRED); // Use the enum instead of a string
-            // The updatedAt field is now handled automatically by @UpdateTimestamp
+    /**
+     * Expires the given passes if they are still 'APPROVED'. Used by PassExpiryScheduler when deadlines fall due.
+     * @param passIds IDs of the passes whose deadline has passed
+     * @return The number of passes actually expired
+     */
+    public int expirePasses(List<Long> passIds) {
+        if (passIds == null || passIds.isEmpty()) {
+            return 0;
+        }
+        List<ExpiringPassView> candidates = passRepository.findExpiringPassesByIdIn(PassStatus.APPROVED, passIds);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        return processChunk(candidates, new HashMap<>());
+    }
 
-            passRepository.save(pass);
+    public Duration getGracePeriod() {
+        return gracePeriod;
+    }
 
-            // Log the system event (no specific user performed this action)
-            auditService.logEvent("PASS_EXPIRED_SYSTEM", null, pass.getTenant().getId(), pass.getId());
+    private int processChunk(List<ExpiringPassView> candidates, Map<Long, String> tenantAdminEmails) {
+        List<ExpiringPassView> expired = transactionTemplate.execute(status -> expireChunk(candidates));
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        for (ExpiringPassView pass : expired) {
+            tenantPassCounters.onTransition(pass.getTenantId(), pass.getVisitDateTime(), PassStatus.APPROVED, PassStatus.EXPIRED);
+            webSocketUpdateService.notifyPassChanged(pass.getTenantId(), pass.getId(), pass.getPassCode(), pass.getVisitorName(),
+                    pass.getVisitDateTime(), PassStatus.APPROVED, PassStatus.EXPIRED);
+            VisitorPassResponse response = toExpiredResponse(pass);
+            passCodeIndex.put(response);
+            gateRosterFeed.onPassChanged(response);
+            passRollupService.onTransition(pass.getTenantId(), PassStatus.EXPIRED);
+        }
+        expired.stream().map(ExpiringPassView::getTenantId).distinct().forEach(dashboardCache::invalidateTenant);
 
-            // Find the Tenant Admin to notify
-            String tenantAdminEmail = findTenantAdminEmail(pass.getTenant().getId());
+        resolveTenantAdminEmails(expired, tenantAdminEmails);
+        publishExpiredEvents(expired, tenantAdminEmails);
+        return expired.size();
+    }
 
-            // Create and send the notification event
-            PassExpiredEvent event = new PassExpiredEvent(
-                    pass.getId(),
-                    pass.getVisitorName(),
-                    pass.getVisitDateTime(),
-                    pass.getCreatedBy().getEmail(),
-                    tenantAdminEmail,
-                    pass.getTenant().getId()
-            );
+    /**
+     * Expires one chunk and writes its audit rows. Must run inside a transaction.
+     * The chunk's rows that are still 'APPROVED' are locked first, skipping rows another node is expiring right
+     * now; exactly those are expired and audited, so competing expirers never report the same pass twice.
+     * @return The passes this call actually moved to EXPIRED (others may have been checked in or expired elsewhere).
+     */
+    private List<ExpiringPassView> expireChunk(List<ExpiringPassView> chunk) {
+        List<Long> ids = chunk.stream().map(ExpiringPassView::getId).collect(Collectors.toList());
+        List<Long> lockedIds = passRepository.lockApprovedPassIdsSkipLocked(ids);
+        if (lockedIds.isEmpty()) {
+            return List.of();
+        }
+        passRepository.expireApprovedPasses(lockedIds, LocalDateTime.now());
+        Set<Long> expiredIds = new HashSet<>(lockedIds);
+        List<ExpiringPassView> expired = chunk.stream()
+                .filter(pass -> expiredIds.contains(pass.getId()))
+                .collect(Collectors.toList());
+
+        // Log the system events (no specific user performed this action)
+        List<AuditLog> auditLogs = expired.stream()
+                .map(pass -> auditService.buildLog("PASS_EXPIRED_SYSTEM", null, pass.getTenantId(), pass.getId()))
+                .collect(Collectors.toList());
+        auditService.logEvents(auditLogs);
+        return expired;
+    }
+
+    /**
+     * Looks up the Tenant Admin email for every tenant in the chunk that has not been seen yet in this run.
+     * Tenants without an admin are cached as null so they are not queried again.
+     */
+    private void resolveTenantAdminEmails(List<ExpiringPassView> passes, Map<Long, String> tenantAdminEmails) {
+        Set<Long> unresolved = passes.stream()
+                .map(ExpiringPassView::getTenantId)
+                .filter(tenantId -> !tenantAdminEmails.containsKey(tenantId))
+                .collect(Collectors.toSet());
+        if (unresolved.isEmpty()) {
+            return;
+        }
 
-            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_EXPIRED, event);
+        for (Object[] row : userRepository.findEmailsByTenantIdInAndRole(unresolved, "ROLE_TENANT_ADMIN")) {
+            tenantAdminEmails.putIfAbsent((Long) row[0], (String) row[1]);
         }
+        unresolved.forEach(tenantId -> tenantAdminEmails.putIfAbsent(tenantId, null));
+    }
 
-        logger.info("Successfully expired {} passes.", passesToExpire.size());
+    /**
+     * Publishes one PassExpiredEvent per pass on a single channel and waits for the broker to confirm the batch.
+     * The passes are already committed as EXPIRED at this point, so a failed batch is logged rather than retried.
+     */
+    private void publishExpiredEvents(List<ExpiringPassView> passes, Map<Long, String> tenantAdminEmails) {
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (ExpiringPassView pass : passes) {
+                    PassExpiredEvent event = new PassExpiredEvent(
+                            pass.getId(),
+                            pass.getVisitorName(),
+                            pass.getVisitDateTime(),
+                            pass.getEmployeeEmail(),
+                            tenantAdminEmails.get(pass.getTenantId()),
+                            pass.getTenantId()
+                    );
+                    operations.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_EXPIRED, event);
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+        } catch (AmqpException e) {
+            logger.error("Failed to publish expiry notifications for {} passes (ids {}..{}): {}",
+                    passes.size(), passes.get(0).getId(), passes.get(passes.size() - 1).getId(), e.getMessage());
+        }
     }
 
     /**
-     * Helper method to find the email of a Tenant Admin for a given tenant.
-     * @param tenantId The ID of the tenant.
-     * @return The email of the Tenant Admin, or null if not found.
+     * The fields of an expired pass the gate feed needs; the projection does not carry the rest.
      */
-    private String findTenantAdminEmail(Long tenantId) {
-        // Find a user with the specified role for the given tenant
-        Optional<User> tenantAdmin = userRepository.findFirstByTenantIdAndRole(tenantId, "ROLE_TENANT_ADMIN");
-        return tenantAdmin.map(User::getEmail).orElse(null);
+    private VisitorPassResponse toExpiredResponse(ExpiringPassView pass) {
+        VisitorPassResponse response = new VisitorPassResponse();
+        response.setId(pass.getId());
+        response.setTenantId(pass.getTenantId());
+        response.setVisitorName(pass.getVisitorName());
+        response.setPassCode(pass.getPassCode());
+        response.setVisitDateTime(pass.getVisitDateTime());
+        response.setStatus(PassStatus.EXPIRED.name());
+        // The view was read before the expiring UPDATE bumped the version
+        response.setVersion(pass.getVersion() != null ? pass.getVersion() + 1 : null);
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.RollupBackfillResponse;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.PassActivityRollup;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import com.gt.visitor_pass_service.repository.AuditLogRepository;
+import com.gt.visitor_pass_service.repository.PassActivityRollupRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rebuilds pass rollups from audit_logs, one day at a time.
+ *
+ * The pass audit actions of the day are read in keyset-paged chunks and replayed in order per tenant: each counts
+ * towards its hour, and check-ins and check-outs move the tenant's occupancy, which starts from all check-ins minus
+ * check-outs logged before the first day. An hour's peak is the highest occupancy at its start or after any of its
+ * events. The rebuilt hour and day rows then replace the stored ones through PassRollupService, and each past day
+ * row keeps the tenant's closing occupancy.
+ * Runs nightly for yesterday and on demand from the Super Admin API, for past days only: today's transitions keep
+ * arriving after the replay has read audit_logs, and replacing today's rows would drop their pending deltas along
+ * with the ones the replay covered. The nightly run starts from the closing
+ * occupancy stored by the previous night's run, and only counts through all of audit_logs when that day was not
+ * rebuilt; on-demand backfills always count, since they are how damaged rollups get repaired.
+ */
+@Service
+public class PassRollupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassRollupBackfill.class);
+    public static final int MAX_DAYS_PER_REQUEST = 366;
+
+    private static final String CHECKED_IN_ACTION = "PASS_CHECKED_IN";
+    private static final String CHECKED_OUT_ACTION = "PASS_CHECKED_OUT";
+    private static final Map<String, PassStatus> PASS_ACTIONS = Map.of(
+            "PASS_CREATED", PassStatus.PENDING,
+            "PASS_APPROVED", PassStatus.APPROVED,
+            "PASS_REJECTED", PassStatus.REJECTED,
+            CHECKED_IN_ACTION, PassStatus.CHECKED_IN,
+            CHECKED_OUT_ACTION, PassStatus.CHECKED_OUT,
+            "PASS_EXPIRED_SYSTEM", PassStatus.EXPIRED);
+
+    private final AuditLogRepository auditLogRepository;
+    private final PassActivityRollupRepository rollupRepository;
+    private final PassRollupService passRollupService;
+    private final int chunkSize;
+
+    public PassRollupBackfill(AuditLogRepository auditLogRepository,
+                              PassActivityRollupRepository rollupRepository,
+                              PassRollupService passRollupService,
+                              @Value("${app.rollups.backfill-chunk-size:1000}") int chunkSize) {
+        this.auditLogRepository = auditLogRepository;
+        this.rollupRepository = rollupRepository;
+        this.passRollupService = passRollupService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "0 15 0 * * ?") // Runs every day at 00:15, after the last flush of the previous day
+    public void backfillYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Map<Long, Long> occupancy = closingOccupancy(yesterday.minusDays(1));
+        if (occupancy == null) {
+            logger.info("No closing occupancy stored for {}; counting it from all audit logs.", yesterday.minusDays(1));
+            occupancy = occupancyBefore(DateRangeUtil.startOfDay(yesterday));
+        }
+        RollupBackfillResponse result = replay(yesterday, yesterday, occupancy);
+        logger.info("Rebuilt pass rollups for {}: {} audit events, {} rows.", yesterday, result.getAuditEventsRead(), result.getRowsWritten());
+    }
+
+    /**
+     * Rebuilds the rollups of the past days [from, to]. Today's rows are kept current by the flush, and rebuilt the
+     * night after.
+     */
+    public RollupBackfillResponse backfill(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must be on or before 'to'.");
+        }
+        if (!to.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Rollups can only be rebuilt for past days; today's are kept current by the flush.");
+        }
+        if (from.plusDays(MAX_DAYS_PER_REQUEST).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("At most " + MAX_DAYS_PER_REQUEST + " days can be rebuilt per request.");
+        }
+        return replay(from, to, occupancyBefore(DateRangeUtil.startOfDay(from)));
+    }
+
+    /**
+     * Rebuilds the days [from, to], starting from the given occupancy per tenant.
+     */
+    private RollupBackfillResponse replay(LocalDate from, LocalDate to, Map<Long, Long> occupancy) {
+        long eventsRead = 0L;
+        long rowsWritten = 0L;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate day = date;
+            Map<Long, DayReplay> replays = new HashMap<>();
+            occupancy.forEach((tenantId, inside) -> {
+                if (inside > 0) {
+                    replays.put(tenantId, new DayReplay(tenantId, day, inside));
+                }
+            });
+            eventsRead += replayDay(day, replays);
+
+            List<PassActivityRollup> rows = new ArrayList<>();
+            for (DayReplay replay : replays.values()) {
+                rows.addAll(replay.finish());
+                occupancy.put(replay.tenantId, replay.occupancy);
+            }
+            passRollupService.replaceBuckets(DateRangeUtil.startOfDay(day), DateRangeUtil.startOfNextDay(day), rows);
+            rowsWritten += rows.size();
+        }
+        return new RollupBackfillResponse(from, to, eventsRead, rowsWritten);
+    }
+
+    /**
+     * @return Per tenant, the occupancy at the end of the given day as stored by its rebuild, or null if the day was
+     * not rebuilt (or had no activity at all, which cannot be told apart). Tenants without a row had nobody inside.
+     */
+    private Map<Long, Long> closingOccupancy(LocalDate day) {
+        List<Object[]> rows = rollupRepository.findClosingOccupancies(RollupGranularity.DAY, DateRangeUtil.startOfDay(day));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<Long, Long> occupancy = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[1] == null) {
+                // Written by a flush after the rebuild, or never rebuilt
+                return null;
+            }
+            occupancy.put((Long) row[0], (Long) row[1]);
+        }
+        return occupancy;
+    }
+
+    /**
+     * @return Per tenant, the check-ins minus check-outs logged before the given time
+     */
+    private Map<Long, Long> occupancyBefore(LocalDateTime before) {
+        Map<Long, Long> occupancy = new HashMap<>();
+        for (Object[] row : auditLogRepository.countActionsByTenantBefore(before, Set.of(CHECKED_IN_ACTION, CHECKED_OUT_ACTION))) {
+            if (row[0] == null) {
+                continue;
+            }
+            long count = (Long) row[2];
+            occupancy.merge((Long) row[0], CHECKED_IN_ACTION.equals(row[1]) ? count : -count, Long::sum);
+        }
+        occupancy.replaceAll((tenantId, inside) -> Math.max(0L, inside));
+        return occupancy;
+    }
+
+    /**
+     * @return The number of audit events replayed
+     */
+    private long replayDay(LocalDate day, Map<Long, DayReplay> replays) {
+        LocalDateTime start = DateRangeUtil.startOfDay(day);
+        LocalDateTime end = DateRangeUtil.startOfNextDay(day);
+        long lastSeenId = 0L;
+        long read = 0L;
+        List<AuditLog> chunk;
+        do {
+            chunk = auditLogRepository.findActionsLoggedBetween(start, end, PASS_ACTIONS.keySet(), lastSeenId,
+                    PageRequest.of(0, chunkSize));
+            for (AuditLog log : chunk) {
+                lastSeenId = log.getId();
+                if (log.getTenantId() != null) {
+                    replays.computeIfAbsent(log.getTenantId(), tenantId -> new DayReplay(tenantId, day, 0L))
+                            .apply(PASS_ACTIONS.get(log.getActionDescription()), log.getTimestamp().getHour());
+                }
+            }
+            read += chunk.size();
+        } while (chunk.size() == chunkSize);
+        return read;
+    }
+
+    /**
+     * One tenant's day being replayed: its 24 hour rows and its running occupancy.
+     */
+    private static class DayReplay {
+
+        private final Long tenantId;
+        private final LocalDateTime dayStart;
+        private final PassActivityRollup[] hours = new PassActivityRollup[24];
+        private long occupancy;
+        private int nextHour;
+
+        DayReplay(Long tenantId, LocalDate day, long occupancy) {
+            this.tenantId = tenantId;
+            this.dayStart = DateRangeUtil.startOfDay(day);
+            this.occupancy = occupancy;
+        }
+
+        void apply(PassStatus status, int hour) {
+            advanceTo(hour);
+            PassActivityRollup row = hour(hour);
+            PassRollupService.addCount(row, status, 1L);
+            if (status == PassStatus.CHECKED_IN) {
+                occupancy++;
+            } else if (status == PassStatus.CHECKED_OUT) {
+                occupancy = Math.max(0L, occupancy - 1);
+            }
+            row.setPeakOccupancy(Math.max(row.getPeakOccupancy(), occupancy));
+        }
+
+        /**
+         * @return The non-empty hour rows and, if there are any, the day row
+         */
+        List<PassActivityRollup> finish() {
+            advanceTo(hours.length - 1);
+            List<PassActivityRollup> rows = new ArrayList<>();
+            PassActivityRollup dayRow = PassRollupService.newRow(tenantId, RollupGranularity.DAY, dayStart);
+            for (PassActivityRollup row : hours) {
+                if (row != null && !isEmpty(row)) {
+                    rows.add(row);
+                    PassRollupService.merge(dayRow, row);
+                }
+            }
+            if (!rows.isEmpty()) {
+                dayRow.setClosingOccupancy(occupancy);
+                rows.add(dayRow);
+            }
+            return rows;
+        }
+
+        /**
+         * Carries the occupancy into every hour up to the given one, as the peak those hours start with.
+         */
+        private void advanceTo(int hour) {
+            for (; nextHour <= hour; nextHour++) {
+                PassActivityRollup row = hour(nextHour);
+                row.setPeakOccupancy(Math.max(row.getPeakOccupancy(), occupancy));
+            }
+        }
+
+        private PassActivityRollup hour(int hour) {
+            if (hours[hour] == null) {
+                hours[hour] = PassRollupService.newRow(tenantId, RollupGranularity.HOUR, dayStart.plusHours(hour));
+            }
+            return hours[hour];
+        }
+
+        private static boolean isEmpty(PassActivityRollup row) {
+            return row.getCreated() == 0 && row.getApproved() == 0 && row.getRejected() == 0 && row.getCheckedIn() == 0
+                    && row.getCheckedOut() == 0 && row.getExpired() == 0 && row.getPeakOccupancy() == 0;
+        }
+    }
+}
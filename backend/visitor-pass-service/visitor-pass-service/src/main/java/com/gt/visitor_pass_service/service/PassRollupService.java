@@ -0,0 +1,239 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.PassActivityPoint;
+import com.gt.visitor_pass_service.dto.TenantDashboardStats;
+import com.gt.visitor_pass_service.model.PassActivityRollup;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.model.enums.RollupGranularity;
+import com.gt.visitor_pass_service.repository.PassActivityRollupRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hourly and daily pass activity per tenant (PassActivityRollup) for the analytics trend charts.
+ *
+ * Every committed pass transition is counted in memory against its tenant and hour; check-ins also record the
+ * tenant's current occupancy (from TenantPassCounters) as a peak candidate. Every app.rollups.flush-interval-ms the
+ * pending deltas are added to their hour and day rows, one short transaction per tenant and hour, and the current
+ * occupancy of every tenant with visitors inside is recorded for the current hour. PassRollupBackfill rebuilds
+ * days from audit_logs, nightly for yesterday (which repairs anything lost with an unflushed delta) and on demand.
+ * Series are read from the rollup rows only, so the current hour lags by at most one flush interval.
+ */
+@Service
+public class PassRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassRollupService.class);
+    public static final int MAX_SERIES_POINTS = 2000;
+
+    private final PassActivityRollupRepository rollupRepository;
+    private final TenantPassCounters tenantPassCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<HourKey, PassActivityRollup> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public PassRollupService(PassActivityRollupRepository rollupRepository,
+                             TenantPassCounters tenantPassCounters,
+                             PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.tenantPassCounters = tenantPassCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Counts a committed status change. Call after TenantPassCounters has seen it, so a check-in's peak includes it.
+     * @param to The new status; PENDING counts a newly created pass
+     */
+    public void onTransition(Long tenantId, PassStatus to) {
+        if (tenantId == null) {
+            return;
+        }
+        long occupancy = 0L;
+        if (to == PassStatus.CHECKED_IN) {
+            TenantDashboardStats stats = tenantPassCounters.getStats(tenantId);
+            occupancy = stats != null ? stats.getCheckedInVisitors() : 0L;
+        }
+        long peakCandidate = occupancy;
+        LocalDateTime hour = RollupGranularity.HOUR.bucketStart(LocalDateTime.now());
+        pending.compute(new HourKey(tenantId, hour), (key, delta) -> {
+            delta = delta != null ? delta : newRow(tenantId, RollupGranularity.HOUR, hour);
+            addCount(delta, to, 1L);
+            delta.setPeakOccupancy(Math.max(delta.getPeakOccupancy(), peakCandidate));
+            return delta;
+        });
+    }
+
+    /**
+     * Adds all pending deltas to their hour and day rows. A delta whose write fails is kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.rollups.flush-interval-ms:60000}",
+            initialDelayString = "${app.rollups.flush-interval-ms:60000}")
+    public void flush() {
+        synchronized (flushLock) {
+            LocalDateTime hour = RollupGranularity.HOUR.bucketStart(LocalDateTime.now());
+            tenantPassCounters.getCheckedInCounts().forEach((tenantId, occupancy) ->
+                    pending.compute(new HourKey(tenantId, hour), (key, delta) -> {
+                        delta = delta != null ? delta : newRow(tenantId, RollupGranularity.HOUR, hour);
+                        delta.setPeakOccupancy(Math.max(delta.getPeakOccupancy(), occupancy));
+                        return delta;
+                    }));
+
+            int written = 0;
+            for (HourKey key : new ArrayList<>(pending.keySet())) {
+                PassActivityRollup delta = pending.remove(key);
+                if (delta == null) {
+                    continue;
+                }
+                try {
+                    try {
+                        write(delta);
+                    } catch (DataIntegrityViolationException e) {
+                        // Another node created one of the rows in the meantime; now both exist and are incremented
+                        write(delta);
+                    }
+                    written++;
+                } catch (DataAccessException | TransactionException e) {
+                    logger.error("Failed to flush the pass rollup of tenant {} for {}; retrying on the next flush: {}",
+                            key.tenantId(), key.hour(), e.getMessage());
+                    pending.merge(key, delta, PassRollupService::merge);
+                }
+            }
+            logger.debug("Flushed {} pass rollup deltas.", written);
+        }
+    }
+
+    /**
+     * Replaces every tenant's rows starting in [start, end) with the given ones, in one transaction. Pending deltas
+     * for that range are dropped, since the rebuilt rows already contain them; the range must therefore be over, so
+     * that no transition in it can still be committed after the rows were built.
+     */
+    public void replaceBuckets(LocalDateTime start, LocalDateTime end, Collection<PassActivityRollup> rows) {
+        synchronized (flushLock) {
+            pending.keySet().removeIf(key -> !key.hour().isBefore(start) && key.hour().isBefore(end));
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteBuckets(start, end);
+                rollupRepository.saveAll(rows);
+            });
+        }
+    }
+
+    /**
+     * The tenant's activity per bucket for the days [from, to], with empty buckets included as zeros.
+     */
+    public List<PassActivityPoint> getTenantSeries(Long tenantId, LocalDate from, LocalDate to, RollupGranularity granularity) {
+        requireValidRange(from, to, granularity);
+        LocalDateTime start = DateRangeUtil.startOfDay(from);
+        LocalDateTime end = DateRangeUtil.startOfNextDay(to);
+        Map<LocalDateTime, PassActivityPoint> points = new HashMap<>();
+        for (PassActivityRollup row : rollupRepository.findSeries(tenantId, granularity, start, end)) {
+            points.put(row.getBucketStart(), new PassActivityPoint(row.getBucketStart(), row.getCreated(), row.getApproved(),
+                    row.getRejected(), row.getCheckedIn(), row.getCheckedOut(), row.getExpired(), row.getPeakOccupancy()));
+        }
+        return densify(points, start, end, granularity, 0L);
+    }
+
+    /**
+     * Activity of all tenants together per bucket for the days [from, to]. Carries no peak occupancy.
+     */
+    public List<PassActivityPoint> getGlobalSeries(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        requireValidRange(from, to, granularity);
+        LocalDateTime start = DateRangeUtil.startOfDay(from);
+        LocalDateTime end = DateRangeUtil.startOfNextDay(to);
+        Map<LocalDateTime, PassActivityPoint> points = new HashMap<>();
+        for (Object[] row : rollupRepository.sumSeries(granularity, start, end)) {
+            LocalDateTime bucket = (LocalDateTime) row[0];
+            points.put(bucket, new PassActivityPoint(bucket, (Long) row[1], (Long) row[2], (Long) row[3],
+                    (Long) row[4], (Long) row[5], (Long) row[6], null));
+        }
+        return densify(points, start, end, granularity, null);
+    }
+
+    static PassActivityRollup newRow(Long tenantId, RollupGranularity granularity, LocalDateTime bucketStart) {
+        PassActivityRollup row = new PassActivityRollup();
+        row.setTenantId(tenantId);
+        row.setGranularity(granularity);
+        row.setBucketStart(bucketStart);
+        return row;
+    }
+
+    static void addCount(PassActivityRollup row, PassStatus status, long count) {
+        switch (status) {
+            case PENDING -> row.setCreated(row.getCreated() + count);
+            case APPROVED -> row.setApproved(row.getApproved() + count);
+            case REJECTED -> row.setRejected(row.getRejected() + count);
+            case CHECKED_IN -> row.setCheckedIn(row.getCheckedIn() + count);
+            case CHECKED_OUT -> row.setCheckedOut(row.getCheckedOut() + count);
+            case EXPIRED -> row.setExpired(row.getExpired() + count);
+        }
+    }
+
+    /**
+     * Adds the counts of one row to another and keeps the higher peak.
+     */
+    static PassActivityRollup merge(PassActivityRollup into, PassActivityRollup from) {
+        into.setCreated(into.getCreated() + from.getCreated());
+        into.setApproved(into.getApproved() + from.getApproved());
+        into.setRejected(into.getRejected() + from.getRejected());
+        into.setCheckedIn(into.getCheckedIn() + from.getCheckedIn());
+        into.setCheckedOut(into.getCheckedOut() + from.getCheckedOut());
+        into.setExpired(into.getExpired() + from.getExpired());
+        into.setPeakOccupancy(Math.max(into.getPeakOccupancy(), from.getPeakOccupancy()));
+        return into;
+    }
+
+    /**
+     * Adds an hour delta to its hour and day rows in one transaction, creating rows that do not exist yet.
+     */
+    private void write(PassActivityRollup delta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucket = granularity.bucketStart(delta.getBucketStart());
+                int updated = rollupRepository.addToBucket(delta.getTenantId(), granularity, bucket, delta.getCreated(),
+                        delta.getApproved(), delta.getRejected(), delta.getCheckedIn(), delta.getCheckedOut(),
+                        delta.getExpired(), delta.getPeakOccupancy());
+                if (updated == 0) {
+                    rollupRepository.saveAndFlush(merge(newRow(delta.getTenantId(), granularity, bucket), delta));
+                }
+            }
+        });
+    }
+
+    private void requireValidRange(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must be on or before 'to'.");
+        }
+        if (granularity.bucketsBetween(DateRangeUtil.startOfDay(from), DateRangeUtil.startOfNextDay(to)) > MAX_SERIES_POINTS) {
+            throw new IllegalArgumentException("At most " + MAX_SERIES_POINTS + " " + granularity.name().toLowerCase()
+                    + " buckets can be requested at once.");
+        }
+    }
+
+    private List<PassActivityPoint> densify(Map<LocalDateTime, PassActivityPoint> points, LocalDateTime start, LocalDateTime end,
+                                            RollupGranularity granularity, Long emptyPeak) {
+        List<PassActivityPoint> series = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = granularity.nextBucket(bucket)) {
+            PassActivityPoint point = points.get(bucket);
+            series.add(point != null ? point : new PassActivityPoint(bucket, 0L, 0L, 0L, 0L, 0L, 0L, emptyPeak));
+        }
+        return series;
+    }
+
+    private record HourKey(Long tenantId, LocalDateTime hour) {
+    }
+}
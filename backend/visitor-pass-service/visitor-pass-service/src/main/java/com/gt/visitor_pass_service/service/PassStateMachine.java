@@ -0,0 +1,52 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves passes between statuses with a single conditional UPDATE per move instead of load-check-save.
+ * Every method returns true only if this call performed the transition; false means the pass does not
+ * exist or is no longer in the source status (e.g. another gate checked it in first).
+ */
+@Service
+public class PassStateMachine {
+
+    private final VisitorPassRepository passRepository;
+
+    public PassStateMachine(VisitorPassRepository passRepository) {
+        this.passRepository = passRepository;
+    }
+
+    /**
+     * Performs a transition that only changes the status, e.g. APPROVED -> CHECKED_IN.
+     * @throws IllegalArgumentException if the lifecycle does not allow from -> to
+     */
+    public boolean transition(Long passId, PassStatus from, PassStatus to) {
+        requireAllowed(from, to);
+        return passRepository.compareAndSetStatus(passId, from, to, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * PENDING -> APPROVED, recording who approved it.
+     */
+    public boolean approve(Long passId, User approver) {
+        return passRepository.decidePendingPass(passId, PassStatus.APPROVED, approver, null, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * PENDING -> REJECTED, recording who rejected it and why.
+     */
+    public boolean reject(Long passId, User approver, String reason) {
+        return passRepository.decidePendingPass(passId, PassStatus.REJECTED, approver, reason, LocalDateTime.now()) == 1;
+    }
+
+    private void requireAllowed(PassStatus from, PassStatus to) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("A pass cannot move from " + from + " to " + to + ".");
+        }
+    }
+}
@@ -8,17 +8,28 @@ import com.gt.visitor_pass_service.model.Tenant;
 import com.gt.visitor_pass_service.repository.TenantRepository;
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class SuperAdminDashboardService {
 
+    private static final String GLOBAL_TENANT_NAME = "Global Administration";
+
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
     private final VisitorPassRepository passRepository;
@@ -47,31 +58,58 @@ public class SuperAdminDashboardService {
     }
 
     private GlobalStatsDTO buildGlobalStats() {
+        LocalDate today = LocalDate.now();
         return GlobalStatsDTO.builder()
                 .totalTenants(tenantRepository.count() - 1) // Subtract 1 for the "Global" tenant
                 .totalUsers(userRepository.count())
                 .totalPassesIssued(passRepository.count())
-                .activePassesToday(passRepository.countActivePassesForToday())
+                .activePassesToday(passRepository.countActivePassesForToday(
+                        DateRangeUtil.startOfDay(today), DateRangeUtil.startOfNextDay(today)))
                 .build();
     }
 
     private List<TenantActivityDTO> buildTenantActivity() {
         List<Tenant> tenants = tenantRepository.findAll().stream()
-                .filter(tenant -> !"Global Administration".equals(tenant.getName()))
+                .filter(tenant -> !GLOBAL_TENANT_NAME.equals(tenant.getName()))
                 .collect(Collectors.toList());
+        return toTenantActivity(tenants);
+    }
+
+    /**
+     * Builds the activity rows for the given tenants with three grouped queries restricted to those tenants,
+     * however many tenants there are.
+     */
+    private List<TenantActivityDTO> toTenantActivity(List<Tenant> tenants) {
+        if (tenants.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> tenantIds = tenants.stream().map(Tenant::getId).collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        Map<Long, Long> userCounts = toCountMap(userRepository.countUsersByTenantIdIn(tenantIds));
+        Map<Long, Long> passesToday = toCountMap(passRepository.countPassesByTenantIdInForVisitsBetween(tenantIds,
+                DateRangeUtil.startOfDay(today), DateRangeUtil.startOfNextDay(today)));
+        Map<Long, Long> passesAllTime = toCountMap(passRepository.countPassesByTenantIdIn(tenantIds));
 
         return tenants.stream()
                 .map(tenant -> TenantActivityDTO.builder()
                         .tenantId(tenant.getId())
                         .tenantName(tenant.getName())
                         .locationDetails(tenant.getLocationDetails()) // <-- ADD THIS LINE
-                        .userCount(userRepository.countByTenantId(tenant.getId()))
-                        .passesToday(passRepository.countPassesForTenantToday(tenant.getId()))
-                        .totalPassesAllTime(passRepository.countByTenantId(tenant.getId()))
+                        .userCount(userCounts.getOrDefault(tenant.getId(), 0L))
+                        .passesToday(passesToday.getOrDefault(tenant.getId(), 0L))
+                        .totalPassesAllTime(passesAllTime.getOrDefault(tenant.getId(), 0L))
                         .build())
                 .collect(Collectors.toList());
     }
 
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
     private List<VisitorPassResponse> getRecentPasses() {
         return passRepository.findTop10ByOrderByCreatedAtDesc()
                 .stream()
@@ -79,28 +117,41 @@ public class SuperAdminDashboardService {
                 .collect(Collectors.toList());
     }
 
-    public Page<TenantActivityDTO> getPaginatedTenantActivity(Pageable pageable) {
-        List<Tenant> allTenants = tenantRepository.findAll();
-
-        // Filter out the "Global Administration" tenant and build activity data
-        List<TenantActivityDTO> tenantActivity = allTenants.stream()
-                .filter(tenant -> !"Global Administration".equals(tenant.getName()))
-                .map(tenant -> TenantActivityDTO.builder()
-                        .tenantId(tenant.getId())
-                        .tenantName(tenant.getName())
-                        .locationDetails(tenant.getLocationDetails())
-                        .userCount(userRepository.countByTenantId(tenant.getId()))
-                        .passesToday(passRepository.countActivePassesForToday()) // Use existing method
-                        .totalPassesAllTime(passRepository.countByTenantId(tenant.getId()))
-                        .build())
-                .collect(Collectors.toList());
-
-        // Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), tenantActivity.size());
-
-        List<TenantActivityDTO> pageContent = tenantActivity.subList(start, end);
+    /**
+     * One page of locations, paged, filtered and sorted in the database. Activity counts are only
+     * computed for the tenants on the page.
+     * @param search Optional text matched against the location name and details
+     * @param pageable Page and sort; sortable by tenantName, userCount or totalPassesAllTime (first order only)
+     */
+    public Page<TenantActivityDTO> getPaginatedTenantActivity(String search, Pageable pageable) {
+        String pattern = search == null || search.isBlank() ? null : "%" + search.trim().toLowerCase() + "%";
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("tenantName"));
+        Sort.Direction direction = order.getDirection();
+
+        switch (order.getProperty()) {
+            case "tenantName": {
+                Page<Tenant> tenants = tenantRepository.findLocations(GLOBAL_TENANT_NAME, pattern, PageRequest.of(
+                        pageable.getPageNumber(), pageable.getPageSize(), Sort.by(direction, "name").and(Sort.by("id"))));
+                return new PageImpl<>(toTenantActivity(tenants.getContent()), pageable, tenants.getTotalElements());
+            }
+            case "totalPassesAllTime":
+                return toActivityPage(tenantRepository.findLocationIdsWithPassCounts(GLOBAL_TENANT_NAME, pattern,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), JpaSort.unsafe(direction, "COUNT(vp)").and(Sort.by("id")))), pageable);
+            case "userCount":
+                return toActivityPage(tenantRepository.findLocationIdsWithUserCounts(GLOBAL_TENANT_NAME, pattern,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), JpaSort.unsafe(direction, "COUNT(u)").and(Sort.by("id")))), pageable);
+            default:
+                throw new IllegalArgumentException("Locations can only be sorted by tenantName, userCount or totalPassesAllTime.");
+        }
+    }
 
-        return new PageImpl<>(pageContent, pageable, tenantActivity.size());
+    /**
+     * Loads the tenants of a page of ids and keeps them in the page's order.
+     */
+    private Page<TenantActivityDTO> toActivityPage(Page<Long> tenantIds, Pageable pageable) {
+        Map<Long, Tenant> tenantsById = tenantRepository.findAllById(tenantIds.getContent()).stream()
+                .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+        List<Tenant> tenants = tenantIds.getContent().stream().map(tenantsById::get).collect(Collectors.toList());
+        return new PageImpl<>(toTenantActivity(tenants), pageable, tenantIds.getTotalElements());
     }
-}
\ No newline at end of file
+}
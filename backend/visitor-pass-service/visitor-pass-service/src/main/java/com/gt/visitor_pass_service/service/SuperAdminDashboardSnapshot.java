@@ -0,0 +1,141 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.SuperAdminDashboardDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Super Admin dashboard, precomputed in the background and served from memory.
+ *
+ * A "super-admin-snapshot" thread rebuilds the dashboard every app.super-admin-snapshot.refresh-interval-ms.
+ * Requests get the latest snapshot without touching the database (only the very first one waits for a build).
+ * A snapshot counts as stale once it is older than the refresh interval, or once a pass changed (the global
+ * version of DashboardCache moved) and it is older than app.super-admin-snapshot.min-rebuild-interval-ms;
+ * a request that sees a stale snapshot is still answered with it and starts a rebuild. At most one rebuild
+ * runs at a time: everyone asking in the meantime shares it.
+ */
+@Service
+public class SuperAdminDashboardSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuperAdminDashboardSnapshot.class);
+
+    private final SuperAdminDashboardService dashboardService;
+    private final DashboardCache dashboardCache;
+    private final long refreshIntervalMs;
+    private final long minRebuildIntervalMs;
+    private final AtomicReference<CompletableFuture<Snapshot>> rebuild = new AtomicReference<>();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "super-admin-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot current;
+
+    public SuperAdminDashboardSnapshot(SuperAdminDashboardService dashboardService,
+                                       DashboardCache dashboardCache,
+                                       @Value("${app.super-admin-snapshot.refresh-interval-ms:30000}") long refreshIntervalMs,
+                                       @Value("${app.super-admin-snapshot.min-rebuild-interval-ms:5000}") long minRebuildIntervalMs) {
+        this.dashboardService = dashboardService;
+        this.dashboardCache = dashboardCache;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.minRebuildIntervalMs = minRebuildIntervalMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.super-admin-snapshot.refresh-interval-ms:30000}")
+    public void refresh() {
+        // Runs on the builder thread; a failure is logged there and the previous snapshot keeps being served
+        rebuild();
+    }
+
+    /**
+     * @return The latest snapshot, starting a rebuild if it is stale
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            try {
+                return rebuild().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        if (isStale(snapshot)) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        long age = snapshot.ageMs();
+        return age >= refreshIntervalMs
+                || (snapshot.version() != dashboardCache.getGlobalVersion() && age >= minRebuildIntervalMs);
+    }
+
+    /**
+     * @return The rebuild in flight, after starting one if there was none
+     */
+    private CompletableFuture<Snapshot> rebuild() {
+        while (true) {
+            CompletableFuture<Snapshot> inFlight = rebuild.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+            CompletableFuture<Snapshot> started = new CompletableFuture<>();
+            if (rebuild.compareAndSet(null, started)) {
+                builder.execute(() -> build(started));
+                return started;
+            }
+        }
+    }
+
+    private void build(CompletableFuture<Snapshot> result) {
+        try {
+            // Read before building, so a pass that changes during the build makes the snapshot stale
+            long version = dashboardCache.getGlobalVersion();
+            long startedAt = System.currentTimeMillis();
+            SuperAdminDashboardDTO dashboard = dashboardService.getDashboardData();
+            dashboard.setGeneratedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(startedAt), ZoneId.systemDefault()));
+            Snapshot snapshot = new Snapshot(dashboard, version, startedAt);
+            current = snapshot;
+            result.complete(snapshot);
+            logger.debug("Rebuilt the Super Admin dashboard in {} ms.", System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild the Super Admin dashboard: {}", e.getMessage());
+            result.completeExceptionally(e);
+        } finally {
+            rebuild.set(null);
+        }
+    }
+
+    /**
+     * One built dashboard. Its data reflects the database as of generatedAtMillis.
+     */
+    public record Snapshot(SuperAdminDashboardDTO dashboard, long version, long generatedAtMillis) {
+
+        public String eTag() {
+            return "\"global-" + version + "-" + Long.toHexString(generatedAtMillis) + "\"";
+        }
+
+        public long ageMs() {
+            return Math.max(0L, System.currentTimeMillis() - generatedAtMillis);
+        }
+    }
+}
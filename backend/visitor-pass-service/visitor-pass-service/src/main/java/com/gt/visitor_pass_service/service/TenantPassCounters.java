@@ -0,0 +1,185 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.TenantDashboardStats;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory pass counters per tenant that back the Tenant Admin dashboard stats, so opening or refreshing
+ * the dashboard does not run any COUNT query.
+ *
+ * Every tenant has one LongAdder per status for all its passes, plus one per status for the passes visiting
+ * on the current day. VisitorPassService, BulkPassDecisionService and PassExpiryService report every status
+ * change after it is committed. Increments racing a reconciliation can be lost, so the counters are rebuilt from
+ * grouped counts at startup, every app.dashboard-counters.reconcile-interval-ms and just after midnight, when
+ * "today" moves on. Until the first reconciliation of the day has run, getStats returns null and the caller
+ * counts in the database.
+ */
+@Service
+public class TenantPassCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantPassCounters.class);
+
+    private final VisitorPassRepository passRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(null);
+
+    public TenantPassCounters(VisitorPassRepository passRepository) {
+        this.passRepository = passRepository;
+    }
+
+    /**
+     * Records a status change of a pass.
+     * @param from The previous status, or null for a newly created pass
+     * @param to The new status
+     */
+    public void onTransition(Long tenantId, LocalDateTime visitDateTime, PassStatus from, PassStatus to) {
+        if (tenantId == null || from == to) {
+            return;
+        }
+        Snapshot current = snapshot;
+        TenantCounters counters = current.tenants.computeIfAbsent(tenantId, id -> new TenantCounters());
+        boolean visitsToday = visitDateTime != null && visitDateTime.toLocalDate().equals(current.day);
+        if (from != null) {
+            counters.total.get(from).decrement();
+            if (visitsToday) {
+                counters.today.get(from).decrement();
+            }
+        }
+        counters.total.get(to).increment();
+        if (visitsToday) {
+            counters.today.get(to).increment();
+        }
+    }
+
+    /**
+     * @return The tenant's dashboard stats, or null if the counters have not been reconciled for today yet
+     */
+    public TenantDashboardStats getStats(Long tenantId) {
+        Snapshot current = snapshot;
+        if (!LocalDate.now().equals(current.day)) {
+            return null;
+        }
+        TenantCounters counters = current.tenants.get(tenantId);
+        if (counters == null) {
+            return TenantDashboardStats.builder().build();
+        }
+        return TenantDashboardStats.builder()
+                .pendingPasses(counters.total(PassStatus.PENDING))
+                .approvedPassesToday(counters.today(PassStatus.APPROVED))
+                .checkedInVisitors(counters.total(PassStatus.CHECKED_IN))
+                .completedPassesToday(counters.today(PassStatus.CHECKED_OUT) + counters.today(PassStatus.EXPIRED))
+                .build();
+    }
+
+    /**
+     * @return The number of CHECKED_IN passes of every tenant that has any, or an empty map if the counters
+     *         have not been reconciled for today yet
+     */
+    public Map<Long, Long> getCheckedInCounts() {
+        Snapshot current = snapshot;
+        Map<Long, Long> checkedIn = new HashMap<>();
+        if (LocalDate.now().equals(current.day)) {
+            current.tenants.forEach((tenantId, counters) -> {
+                long count = counters.total(PassStatus.CHECKED_IN);
+                if (count > 0) {
+                    checkedIn.put(tenantId, count);
+                }
+            });
+        }
+        return checkedIn;
+    }
+
+    /**
+     * Rebuilds all counters from two grouped counts and swaps them in at once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.dashboard-counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard-counters.reconcile-interval-ms:300000}")
+    @Scheduled(cron = "1 0 0 * * ?") // Runs every day at 00:00:01
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        Snapshot rebuilt = new Snapshot(today);
+        for (Object[] row : passRepository.countByTenantAndStatus()) {
+            rebuilt.tenants.computeIfAbsent((Long) row[0], id -> new TenantCounters()).total.get((PassStatus) row[1]).add((Long) row[2]);
+        }
+        List<Object[]> todayRows = passRepository.countByTenantAndStatusForVisitsBetween(
+                DateRangeUtil.startOfDay(today), DateRangeUtil.startOfNextDay(today));
+        for (Object[] row : todayRows) {
+            rebuilt.tenants.computeIfAbsent((Long) row[0], id -> new TenantCounters()).today.get((PassStatus) row[1]).add((Long) row[2]);
+        }
+
+        long drift = today.equals(snapshot.day) ? snapshot.driftFrom(rebuilt) : 0L;
+        snapshot = rebuilt;
+        if (drift != 0) {
+            logger.warn("Dashboard counters were off by {} and have been reconciled.", drift);
+        }
+        logger.debug("Reconciled dashboard counters for {} tenants.", rebuilt.tenants.size());
+    }
+
+    /**
+     * All tenants' counters for one day. Replaced as a whole on every reconciliation.
+     */
+    private static class Snapshot {
+
+        private final LocalDate day;
+        private final Map<Long, TenantCounters> tenants = new ConcurrentHashMap<>();
+
+        Snapshot(LocalDate day) {
+            this.day = day;
+        }
+
+        /**
+         * @return The summed absolute difference between these counters and the reconciled ones
+         */
+        long driftFrom(Snapshot reconciled) {
+            long drift = 0L;
+            for (Map.Entry<Long, TenantCounters> entry : reconciled.tenants.entrySet()) {
+                TenantCounters mine = tenants.getOrDefault(entry.getKey(), new TenantCounters());
+                for (PassStatus status : PassStatus.values()) {
+                    drift += Math.abs(mine.total.get(status).sum() - entry.getValue().total.get(status).sum());
+                    drift += Math.abs(mine.today.get(status).sum() - entry.getValue().today.get(status).sum());
+                }
+            }
+            return drift;
+        }
+    }
+
+    private static class TenantCounters {
+
+        private final Map<PassStatus, LongAdder> total = newAdders();
+        private final Map<PassStatus, LongAdder> today = newAdders();
+
+        long total(PassStatus status) {
+            return Math.max(0L, total.get(status).sum());
+        }
+
+        long today(PassStatus status) {
+            return Math.max(0L, today.get(status).sum());
+        }
+
+        private static Map<PassStatus, LongAdder> newAdders() {
+            Map<PassStatus, LongAdder> adders = new EnumMap<>(PassStatus.class);
+            for (PassStatus status : PassStatus.values()) {
+                adders.put(status, new LongAdder());
+            }
+            return adders;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.security.JwtTokenProvider;
+import com.gt.visitor_pass_service.config.security.JwtUserPrincipal;
 import com.gt.visitor_pass_service.exception.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -19,11 +22,39 @@ public class TenantSecurityService {
             throw new AccessDeniedException("Authorization header is missing or invalid.");
         }
 
-        String token = authorizationHeader.substring(7);
-        Long tokenTenantId = tokenProvider.getTenantIdFromJWT(token);
+        JwtUserPrincipal principal = currentPrincipal();
+        Long tokenTenantId = principal != null
+                ? principal.getTenantId()
+                : tokenProvider.getTenantIdFromJWT(authorizationHeader.substring(7));
 
         if (tokenTenantId == null || !tokenTenantId.equals(requiredTenantId)) {
             throw new AccessDeniedException("You do not have permission to access resources for this location.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The userId claim of the request's token.
+     * @param authorizationHeader Only parsed if the request was not authenticated by JwtAuthenticationFilter
+     */
+    public Long getCurrentUserId(String authorizationHeader) {
+        JwtUserPrincipal principal = currentPrincipal();
+        if (principal != null) {
+            return principal.getUserId();
+        }
+        if (!StringUtils.hasText(authorizationHeader) || !authorizationHeader.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Authorization header is missing or invalid.");
+        }
+        return tokenProvider.getUserIdFromJWT(authorizationHeader.substring(7));
+    }
+
+    /**
+     * The claims JwtAuthenticationFilter verified for this request, or null if it was authenticated some other way.
+     */
+    private JwtUserPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+}
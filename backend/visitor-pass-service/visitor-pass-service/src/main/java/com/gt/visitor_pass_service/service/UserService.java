@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.config.security.PrincipalCache;
 import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -36,15 +37,17 @@ public class UserService { // Renamed from AdminService
     private final AuditService auditService;
     private final RabbitTemplate rabbitTemplate;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
 
 
-    public UserService(TenantRepository tenantRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService, RabbitTemplate rabbitTemplate, EmailService emailService) {
+    public UserService(TenantRepository tenantRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService, RabbitTemplate rabbitTemplate, EmailService emailService, PrincipalCache principalCache) {
         this.tenantRepository = tenantRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.auditService = auditService;
         this.rabbitTemplate = rabbitTemplate;
         this.emailService = emailService;
+        this.principalCache = principalCache;
     }
 
     @Transactional
@@ -200,6 +203,7 @@ public UserResponse updateUserStatus(Long userId, Long tenantId, boolean isActiv
 
     user.setActive(isActive);
     User savedUser = userRepository.save(user);
+    principalCache.invalidate(savedUser.getId()); // a deactivated user's tokens stop working on their next request
     auditService.logEvent(isActive ? "USER_ACTIVATED" : "USER_DEACTIVATED", savedUser.getId(), tenantId, null);
     return mapToUserResponse(savedUser);
 }
@@ -237,6 +241,7 @@ public UserResponse getCurrentUserProfile(String email) {
         user.setAddress(request.getAddress());
 
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getId()); // tokens issued for the old email are no longer valid
         auditService.logEvent("PROFILE_UPDATED", user.getId(), user.getTenant().getId(), null);
         return mapToUserResponse(updatedUser);
     }
@@ -317,6 +322,7 @@ public UserResponse getCurrentUserProfile(String email) {
 
             // Force the deletion to be committed immediately
             userRepository.flush();
+            principalCache.invalidateAfterCommit(adminId);
 
             System.out.println("Successfully deleted tenant admin: " + adminEmail + " (ID: " + adminId + ") for tenant: " + tenantId);
 
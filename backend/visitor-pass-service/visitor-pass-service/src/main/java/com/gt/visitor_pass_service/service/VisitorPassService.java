@@ -2,16 +2,26 @@ package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
 import com.gt.visitor_pass_service.dto.*;
+import com.gt.visitor_pass_service.exception.PassTransitionConflictException;
 import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
 import com.gt.visitor_pass_service.model.User;
 import com.gt.visitor_pass_service.model.VisitorPass;
 import com.gt.visitor_pass_service.model.enums.PassStatus;
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import com.gt.visitor_pass_service.util.CursorUtil;
+import com.gt.visitor_pass_service.util.DateRangeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,22 +32,47 @@ import java.util.stream.Collectors;
 @Service
 public class VisitorPassService {
 
+    private static final Logger logger = LoggerFactory.getLogger(VisitorPassService.class);
+    private static final List<PassStatus> INDEXED_STATUSES = List.of(PassStatus.PENDING, PassStatus.APPROVED, PassStatus.CHECKED_IN);
+    private static final int INDEX_WARMUP_CHUNK_SIZE = 500;
+
     private final VisitorPassRepository passRepository;
     private final UserRepository userRepository;
     private final RabbitTemplate rabbitTemplate;
     private final AuditService auditService;
     private final WebSocketUpdateService webSocketUpdateService;
+    private final PassExpiryScheduler passExpiryScheduler;
+    private final PassCodeIndex passCodeIndex;
+    private final PassStateMachine passStateMachine;
+    private final TenantPassCounters tenantPassCounters;
+    private final DashboardCache dashboardCache;
+    private final GateRosterFeed gateRosterFeed;
+    private final PassRollupService passRollupService;
 
    public VisitorPassService(VisitorPassRepository passRepository,
                           UserRepository userRepository,
                           RabbitTemplate rabbitTemplate,
                           AuditService auditService,
-                          WebSocketUpdateService webSocketUpdateService) { // <-- Add this
+                          WebSocketUpdateService webSocketUpdateService, // <-- Add this
+                          PassExpiryScheduler passExpiryScheduler,
+                          PassCodeIndex passCodeIndex,
+                          PassStateMachine passStateMachine,
+                          TenantPassCounters tenantPassCounters,
+                          DashboardCache dashboardCache,
+                          GateRosterFeed gateRosterFeed,
+                          PassRollupService passRollupService) {
     this.passRepository = passRepository;
     this.userRepository = userRepository;
     this.rabbitTemplate = rabbitTemplate;
     this.auditService = auditService;
     this.webSocketUpdateService = webSocketUpdateService; // <-- Add this
+    this.passExpiryScheduler = passExpiryScheduler;
+    this.passCodeIndex = passCodeIndex;
+    this.passStateMachine = passStateMachine;
+    this.tenantPassCounters = tenantPassCounters;
+    this.dashboardCache = dashboardCache;
+    this.gateRosterFeed = gateRosterFeed;
+    this.passRollupService = passRollupService;
 }
 
     public Page<VisitorPassResponse> getPassesByStatus(Long tenantId, String status, Pageable pageable) {
@@ -64,9 +99,9 @@ public class VisitorPassService {
 
         VisitorPass savedPass = passRepository.save(pass);
         auditService.logEvent("PASS_CREATED", creator.getId(), tenantId, savedPass.getId());
-        webSocketUpdateService.notifyDashboardUpdate(savedPass.getTenant().getId());
-        
-        return mapToResponse(savedPass);
+        recordTransition(savedPass, null, PassStatus.PENDING);
+
+        return indexAndMap(savedPass);
     }
 
     // Method for an Approver to approve a pass
@@ -74,14 +109,13 @@ public class VisitorPassService {
         User approver = userRepository.findByEmail(approverEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
 
-        VisitorPass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
-
-        pass.setStatus(PassStatus.APPROVED);
-        pass.setApprovedBy(approver);
-
-        VisitorPass savedPass = passRepository.save(pass);
-        auditService.logEvent("PASS_APPROVED", approver.getId(), pass.getTenant().getId(), savedPass.getId());
+        if (!passStateMachine.approve(passId, approver)) {
+            throw transitionRejected(passId, "Only pending passes can be approved.");
+        }
+        VisitorPass savedPass = findWithDetails(passId);
+        auditService.logEvent("PASS_APPROVED", approver.getId(), savedPass.getTenant().getId(), savedPass.getId());
+        recordTransition(savedPass, PassStatus.PENDING, PassStatus.APPROVED);
+        passExpiryScheduler.schedule(savedPass.getId(), savedPass.getVisitDateTime());
 
         // VVV THIS IS THE FIX VVV
         // The event now includes the visitor's email, pass code, and visit date/time
@@ -97,7 +131,7 @@ public class VisitorPassService {
                 );
         rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_APPROVED, event);
 
-        return mapToResponse(savedPass);
+        return indexAndMap(savedPass);
     }
 
     /**
@@ -107,15 +141,13 @@ public class VisitorPassService {
         User approver = userRepository.findByEmail(approverEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
 
-        VisitorPass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
-
-        pass.setStatus(PassStatus.REJECTED);
-        pass.setRejectionReason(reason);
-        pass.setApprovedBy(approver);
-
-        VisitorPass savedPass = passRepository.save(pass);
-        auditService.logEvent("PASS_REJECTED", approver.getId(), pass.getTenant().getId(), savedPass.getId());
+        if (!passStateMachine.reject(passId, approver, reason)) {
+            throw transitionRejected(passId, "Only pending passes can be rejected.");
+        }
+        VisitorPass savedPass = findWithDetails(passId);
+        auditService.logEvent("PASS_REJECTED", approver.getId(), savedPass.getTenant().getId(), savedPass.getId());
+        recordTransition(savedPass, PassStatus.PENDING, PassStatus.REJECTED);
+        passExpiryScheduler.cancel(savedPass.getId());
 
         PassRejectedEvent event = new PassRejectedEvent(
         savedPass.getId(),                  // 1. passId
@@ -126,45 +158,75 @@ public class VisitorPassService {
 );
         rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_REJECTED, event);
 
-        return mapToResponse(savedPass);
+        return indexAndMap(savedPass);
     }
 
-    // Method for Security to check-in a visitor
+    // Method for Security to check-in a visitor.
+    // Only one of two guards scanning the same pass at the same time wins; the other gets a PassTransitionConflictException.
     public VisitorPassResponse checkIn(Long passId) {
-        VisitorPass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
-
-        if (pass.getStatus() != PassStatus.APPROVED) {
-            throw new IllegalStateException("Pass must be approved before check-in.");
+        if (!passStateMachine.transition(passId, PassStatus.APPROVED, PassStatus.CHECKED_IN)) {
+            throw transitionRejected(passId, "Pass must be approved before check-in.");
         }
+        VisitorPass savedPass = findWithDetails(passId);
+        auditService.logEvent("PASS_CHECKED_IN", null, savedPass.getTenant().getId(), savedPass.getId());
+        recordTransition(savedPass, PassStatus.APPROVED, PassStatus.CHECKED_IN);
+        passExpiryScheduler.cancel(savedPass.getId());
 
-        pass.setStatus(PassStatus.CHECKED_IN);
-
-        VisitorPass savedPass = passRepository.save(pass);
-        auditService.logEvent("PASS_CHECKED_IN", null, pass.getTenant().getId(), savedPass.getId());
-
-        return mapToResponse(savedPass);
+        return indexAndMap(savedPass);
     }
 
     public VisitorPassResponse checkOut(Long passId, Long securityUserId) {
-        VisitorPass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
-
-        if (pass.getStatus() != PassStatus.CHECKED_IN) {
-            throw new IllegalStateException("Pass must be checked-in before it can be checked-out.");
+        if (!passStateMachine.transition(passId, PassStatus.CHECKED_IN, PassStatus.CHECKED_OUT)) {
+            throw transitionRejected(passId, "Pass must be checked-in before it can be checked-out.");
         }
-
-        pass.setStatus(PassStatus.CHECKED_OUT);
-
-        VisitorPass savedPass = passRepository.save(pass);
-        auditService.logEvent("PASS_CHECKED_OUT", securityUserId, pass.getTenant().getId(), savedPass.getId());
-        return mapToResponse(savedPass);
+        VisitorPass savedPass = findWithDetails(passId);
+        auditService.logEvent("PASS_CHECKED_OUT", securityUserId, savedPass.getTenant().getId(), savedPass.getId());
+        recordTransition(savedPass, PassStatus.CHECKED_IN, PassStatus.CHECKED_OUT);
+        return indexAndMap(savedPass); // CHECKED_OUT is terminal, so this drops it from the index
     }
 
+    /**
+     * Gate lookup. Served from the in-memory PassCodeIndex when possible; on a miss the pass is loaded
+     * together with its creator and approver in one query and indexed if it is scannable today or tomorrow.
+     */
     public VisitorPassResponse findByPassCode(Long tenantId, String passCode) {
-        VisitorPass pass = passRepository.findByTenantIdAndPassCode(tenantId, passCode)
+        VisitorPassResponse cached = passCodeIndex.get(tenantId, passCode);
+        if (cached != null) {
+            return cached;
+        }
+        VisitorPass pass = passRepository.findWithDetailsByTenantIdAndPassCode(tenantId, passCode)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "passCode", passCode));
-        return mapToResponse(pass);
+        VisitorPassResponse response = mapToResponse(pass);
+        // A transition may have indexed a newer state since this read
+        passCodeIndex.putIfAbsent(response);
+        return response;
+    }
+
+    /**
+     * Fills the PassCodeIndex with today's and tomorrow's scannable passes at startup, and again just after
+     * midnight so the new "tomorrow" is loaded and yesterday's entries are dropped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 1 0 * * ?") // Runs every day at 00:01
+    public void warmPassCodeIndex() {
+        passCodeIndex.evictStaleEntries();
+        LocalDate today = LocalDate.now();
+        LocalDateTime start = DateRangeUtil.startOfDay(today);
+        LocalDateTime end = DateRangeUtil.startOfNextDay(today.plusDays(1));
+
+        long lastSeenId = 0L;
+        int loaded = 0;
+        List<VisitorPass> page;
+        do {
+            page = passRepository.findWithDetailsByVisitDateTimeRange(start, end, INDEXED_STATUSES, lastSeenId,
+                    PageRequest.of(0, INDEX_WARMUP_CHUNK_SIZE));
+            for (VisitorPass pass : page) {
+                passCodeIndex.putIfAbsent(mapToResponse(pass));
+                lastSeenId = pass.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == INDEX_WARMUP_CHUNK_SIZE);
+        logger.info("Loaded {} passes into the pass code index.", loaded);
     }
 
     public Page<VisitorPassResponse> getPassesByTenant(Long tenantId, Pageable pageable) {
@@ -186,15 +248,122 @@ public class VisitorPassService {
         return passPage.map(this::mapToResponse);
     }
 
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    /**
+     * Keyset-paginated variants of getPassesByTenant, getPassesByStatus and getPassHistoryForUser.
+     * Newest first; no total count is computed.
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param size Page size, capped at MAX_CURSOR_PAGE_SIZE
+     */
+    public CursorPage<VisitorPassResponse> getPassesByTenant(Long tenantId, String cursor, int size) {
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        int pageSize = cursorPageSize(size);
+        return toCursorPage(passRepository.findPageByTenantBefore(tenantId, createdAtOf(position), idOf(position),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<VisitorPassResponse> getPassesByStatus(Long tenantId, String status, String cursor, int size) {
+        PassStatus passStatus = PassStatus.valueOf(status.toUpperCase());
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        int pageSize = cursorPageSize(size);
+        return toCursorPage(passRepository.findPageByTenantAndStatusBefore(tenantId, passStatus, createdAtOf(position), idOf(position),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<VisitorPassResponse> getPassHistoryForUser(String userEmail, String cursor, int size) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        int pageSize = cursorPageSize(size);
+        return toCursorPage(passRepository.findPageByCreatorBefore(user.getId(), createdAtOf(position), idOf(position),
+                PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private LocalDateTime createdAtOf(CursorUtil.Cursor position) {
+        return position != null ? position.createdAt() : null;
+    }
+
+    private Long idOf(CursorUtil.Cursor position) {
+        return position != null ? position.id() : null;
+    }
+
+    /**
+     * Turns the size + 1 rows fetched by a keyset query into a page; the extra row only signals that there is a next page.
+     */
+    private CursorPage<VisitorPassResponse> toCursorPage(List<VisitorPass> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<VisitorPass> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            VisitorPass last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+        List<VisitorPassResponse> content = page.stream().map(this::mapToResponse).collect(Collectors.toList());
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+    }
+
    // DELETE the old getTodaysVisitors method.
 
 // ADD this new method in its place in VisitorPassService.java
 public Page<VisitorPassResponse> getTodaysVisitorsPaginated(Long tenantId, Pageable pageable) {
     List<PassStatus> statuses = List.of(PassStatus.APPROVED, PassStatus.CHECKED_IN);
-    Page<VisitorPass> passPage = passRepository.findTodaysVisitorsByTenantAndStatusIn(tenantId, LocalDate.now(), statuses, pageable);
+    LocalDate today = LocalDate.now();
+    Page<VisitorPass> passPage = passRepository.findTodaysVisitorsByTenantAndStatusIn(
+            tenantId, DateRangeUtil.startOfDay(today), DateRangeUtil.startOfNextDay(today), statuses, pageable);
     return passPage.map(this::mapToResponse);
 }
 
+    /**
+     * The whole gate roster for today (APPROVED and CHECKED_IN passes) in visit order, loaded once per GateRosterFeed subscription.
+     */
+    public List<VisitorPassResponse> getTodaysRoster(Long tenantId) {
+        return getTodaysVisitorsPaginated(tenantId, Pageable.unpaged(Sort.by("visitDateTime", "id"))).getContent();
+    }
+
+    /**
+     * Loads a pass with its creator and approver in one query, ready for mapToResponse and the outgoing events.
+     */
+    private VisitorPass findWithDetails(Long passId) {
+        return passRepository.findWithDetailsById(passId)
+                .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
+    }
+
+    /**
+     * Explains a lost compare-and-set: either the pass does not exist or it is not in the required status (any more).
+     */
+    private RuntimeException transitionRejected(Long passId, String message) {
+        if (!passRepository.existsById(passId)) {
+            return new ResourceNotFoundException("VisitorPass", "id", passId);
+        }
+        return new PassTransitionConflictException(message);
+    }
+
+    /**
+     * Reports a committed status change to the dashboard counters, the dashboard cache, the live dashboards,
+     * the gate feed and the analytics rollups.
+     * @param from The previous status, or null for a newly created pass
+     */
+    private void recordTransition(VisitorPass pass, PassStatus from, PassStatus to) {
+        Long tenantId = pass.getTenant().getId();
+        tenantPassCounters.onTransition(tenantId, pass.getVisitDateTime(), from, to);
+        dashboardCache.invalidateTenant(tenantId);
+        webSocketUpdateService.notifyPassChanged(tenantId, pass.getId(), pass.getPassCode(), pass.getVisitorName(),
+                pass.getVisitDateTime(), from, to);
+        gateRosterFeed.onPassChanged(mapToResponse(pass));
+        passRollupService.onTransition(tenantId, to);
+    }
+
+    private VisitorPassResponse indexAndMap(VisitorPass pass) {
+        VisitorPassResponse response = mapToResponse(pass);
+        passCodeIndex.put(response);
+        return response;
+    }
+
     public VisitorPassResponse mapToResponse(VisitorPass pass) {
         VisitorPassResponse response = new VisitorPassResponse();
         response.setId(pass.getId());
@@ -206,6 +375,7 @@ public Page<VisitorPassResponse> getTodaysVisitorsPaginated(Long tenantId, Pagea
         response.setStatus(pass.getStatus().name());
         response.setPassCode(pass.getPassCode());
         response.setVisitDateTime(pass.getVisitDateTime());
+        response.setVersion(pass.getVersion());
         response.setCreatedByEmployeeName(pass.getCreatedBy().getName());
 
         if (pass.getApprovedBy() != null) {
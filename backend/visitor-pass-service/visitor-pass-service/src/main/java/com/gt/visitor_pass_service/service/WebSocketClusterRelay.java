@@ -0,0 +1,106 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.RelayedWebSocketMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends STOMP messages to the subscribers of every visitor-pass-service node, not only this one.
+ *
+ * The in-memory simple broker only reaches clients connected to this node. With
+ * app.websocket.cluster-relay.enabled=true each message is also published on visitor_pass_exchange
+ * (routing key websocket.relay); every node has its own auto-delete queue bound to it, and
+ * WebSocketRelayListener hands what other nodes sent to the local broker. Local subscribers are always served
+ * directly, and a node drops its own relayed copies by their origin id.
+ */
+@Service
+public class WebSocketClusterRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketClusterRelay.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<RelayedListener> relayedListeners = new CopyOnWriteArrayList<>();
+
+    public WebSocketClusterRelay(SimpMessagingTemplate messagingTemplate,
+                                 RabbitTemplate rabbitTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.websocket.cluster-relay.enabled:false}") boolean enabled) {
+        this.messagingTemplate = messagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Delivers the payload to this node's subscribers of the destination and, if the relay is on, to the other nodes'.
+     */
+    public void send(String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSend(destination, payload);
+        } catch (MessagingException e) {
+            logger.error("Failed to send to local subscribers of {}: {}", destination, e.getMessage());
+        }
+        if (!enabled) {
+            return;
+        }
+        try {
+            RelayedWebSocketMessage relayed = new RelayedWebSocketMessage(nodeId, destination, objectMapper.writeValueAsString(payload));
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_WEBSOCKET_RELAY, relayed);
+        } catch (JsonProcessingException | AmqpException e) {
+            // Other nodes' clients miss this update; they catch up on their next dashboard load
+            logger.error("Failed to relay {} to the other nodes: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * Registers an in-process consumer for messages other nodes relay to destinations starting with the prefix,
+     * for node-local state that has to follow them (e.g. the SSE gate feed). It gets the destination and the JSON payload.
+     */
+    public void addRelayedListener(String destinationPrefix, BiConsumer<String, String> listener) {
+        relayedListeners.add(new RelayedListener(destinationPrefix, listener));
+    }
+
+    /**
+     * Delivers a message relayed by another node to this node's subscribers. Messages this node relayed itself are ignored.
+     */
+    public void deliverRelayed(RelayedWebSocketMessage relayed) {
+        if (nodeId.equals(relayed.getOriginNodeId())) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(relayed.getDestination(), objectMapper.readTree(relayed.getPayloadJson()));
+        } catch (JsonProcessingException | MessagingException e) {
+            logger.error("Failed to deliver relayed message for {}: {}", relayed.getDestination(), e.getMessage());
+        }
+        for (RelayedListener listener : relayedListeners) {
+            if (relayed.getDestination().startsWith(listener.destinationPrefix())) {
+                listener.consumer().accept(relayed.getDestination(), relayed.getPayloadJson());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private record RelayedListener(String destinationPrefix, BiConsumer<String, String> consumer) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.RelayedWebSocketMessage;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes this node's relay queue (see WebSocketRelayConfig) and passes other nodes' messages to the local broker.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.cluster-relay.enabled", havingValue = "true")
+public class WebSocketRelayListener {
+
+    private final WebSocketClusterRelay relay;
+
+    public WebSocketRelayListener(WebSocketClusterRelay relay) {
+        this.relay = relay;
+    }
+
+    @RabbitListener(queues = "#{webSocketRelayQueue.name}")
+    public void onRelayedMessage(RelayedWebSocketMessage message) {
+        relay.deliverRelayed(message);
+    }
+}
@@ -1,25 +1,128 @@
 package com.gt.visitor_pass_service.service;
 
+import com.gt.visitor_pass_service.dto.DashboardDeltaMessage;
+import com.gt.visitor_pass_service.dto.PassChangeSummary;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Pushes pass changes to the dashboards subscribed to /topic/dashboard/{tenantId}.
+ *
+ * Changes are collected per tenant and sent as one DashboardDeltaMessage app.websocket.dashboard-debounce-ms
+ * after the first change of a burst, so fifty passes created at once reach each client as one message.
+ * Several changes of the same pass within a window are merged into one summary. Messages go through
+ * WebSocketClusterRelay so clients connected to other nodes get them too.
+ */
 @Service
 public class WebSocketUpdateService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketUpdateService.class);
+
+    private final WebSocketClusterRelay relay;
+    private final long debounceMs;
+    private final Map<Long, PendingChanges> pendingByTenant = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-push");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Autowired
-    public WebSocketUpdateService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketUpdateService(WebSocketClusterRelay relay,
+                                  @Value("${app.websocket.dashboard-debounce-ms:250}") long debounceMs) {
+        this.relay = relay;
+        this.debounceMs = debounceMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
     }
 
-    public void notifyDashboardUpdate(Long tenantId) {
-        String topic = "/topic/dashboard/" + tenantId;
-        // We send a simple message. The content doesn't matter, just the fact that a message was sent.
-        Map<String, String> message = Map.of("message", "A pass has been updated. Please refresh.");
-        messagingTemplate.convertAndSend(topic, message);
+    /**
+     * Queues a pass change for the tenant's next dashboard push.
+     * @param from The previous status, or null for a newly created pass
+     */
+    public void notifyPassChanged(Long tenantId, Long passId, String passCode, String visitorName,
+                                  LocalDateTime visitDateTime, PassStatus from, PassStatus to) {
+        if (tenantId == null) {
+            return;
+        }
+        PassChangeSummary change = new PassChangeSummary(passId, passCode, visitorName, visitDateTime,
+                from != null ? from.name() : null, to.name());
+        boolean[] firstOfWindow = {false};
+        pendingByTenant.compute(tenantId, (id, pending) -> {
+            if (pending == null) {
+                pending = new PendingChanges();
+                firstOfWindow[0] = true;
+            }
+            pending.add(change, from, to);
+            return pending;
+        });
+        if (firstOfWindow[0]) {
+            flusher.schedule(() -> flush(tenantId), debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void flush(Long tenantId) {
+        PendingChanges pending = pendingByTenant.remove(tenantId);
+        if (pending == null) {
+            return;
+        }
+        DashboardDeltaMessage message = new DashboardDeltaMessage("PASS_CHANGES", tenantId,
+                "A pass has been updated. Please refresh.", new ArrayList<>(pending.passes.values()), pending.statDeltas);
+        relay.send("/topic/dashboard/" + tenantId, message);
+    }
+
+    /**
+     * The changes of one tenant within one debounce window. Only touched inside ConcurrentHashMap.compute,
+     * and read after it has been removed from the map.
+     */
+    private static class PendingChanges {
+
+        private final Map<Long, PassChangeSummary> passes = new LinkedHashMap<>();
+        private final Map<String, Long> statDeltas = new LinkedHashMap<>();
+
+        void add(PassChangeSummary change, PassStatus from, PassStatus to) {
+            PassChangeSummary earlier = passes.get(change.getPassId());
+            if (earlier != null) {
+                change.setPreviousStatus(earlier.getPreviousStatus());
+            }
+            passes.put(change.getPassId(), change);
+
+            // Same rules as TenantPassCounters.getStats
+            boolean visitsToday = change.getVisitDateTime() != null && change.getVisitDateTime().toLocalDate().equals(LocalDate.now());
+            count("pendingPasses", from, to, PassStatus.PENDING, true);
+            count("checkedInVisitors", from, to, PassStatus.CHECKED_IN, true);
+            count("approvedPassesToday", from, to, PassStatus.APPROVED, visitsToday);
+            count("completedPassesToday", from, to, PassStatus.CHECKED_OUT, visitsToday);
+            count("completedPassesToday", from, to, PassStatus.EXPIRED, visitsToday);
+        }
+
+        private void count(String stat, PassStatus from, PassStatus to, PassStatus status, boolean applies) {
+            if (!applies) {
+                return;
+            }
+            long delta = (to == status ? 1 : 0) - (from == status ? 1 : 0);
+            if (delta != 0) {
+                statDeltas.merge(stat, delta, Long::sum);
+                statDeltas.remove(stat, 0L);
+            }
+        }
     }
-}
\ No newline at end of file
+}
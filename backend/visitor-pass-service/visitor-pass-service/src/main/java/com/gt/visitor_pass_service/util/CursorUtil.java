@@ -0,0 +1,54 @@
+package com.gt.visitor_pass_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for the opaque cursors of keyset-paginated pass listings.
+ * A cursor is the (createdAt, id) of the last row of a page, Base64url-encoded so clients treat it as a token.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtil() {
+    }
+
+    /**
+     * The sort key a page ends at
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * Encodes the position after the given row
+     * @param createdAt The row's creation time
+     * @param id The row's ID (breaks ties between rows created at the same instant)
+     * @return The opaque cursor string
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client
+     * @param token The cursor string, or null/blank for the first page
+     * @return The decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode}
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor.");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.gt.visitor_pass_service.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Utility class for building half-open [start, end) date-time ranges used by repository queries
+ */
+public class DateRangeUtil {
+
+    private DateRangeUtil() {
+    }
+
+    /**
+     * Start of the given day (inclusive lower bound)
+     * @param date The day
+     * @return Midnight at the beginning of the day
+     */
+    public static LocalDateTime startOfDay(LocalDate date) {
+        return date.atStartOfDay();
+    }
+
+    /**
+     * Start of the following day (exclusive upper bound)
+     * @param date The day
+     * @return Midnight at the beginning of the next day
+     */
+    public static LocalDateTime startOfNextDay(LocalDate date) {
+        return date.plusDays(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,86 @@
+package com.gt.visitor_pass_service.config.security;
+
+import com.gt.visitor_pass_service.dto.UserStatusView;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(userRepository, 60_000L, 100);
+    }
+
+    @Test
+    void isActive_shouldQueryOncePerUserUntilInvalidated() {
+        // --- ARRANGE ---
+        when(userRepository.findStatusById(1L))
+                .thenReturn(Optional.of(status("user@example.com", true)))
+                .thenReturn(Optional.of(status("user@example.com", false))); // deactivated later
+
+        // --- ACT & ASSERT ---
+        assertTrue(principalCache.isActive(1L, "user@example.com"));
+        assertTrue(principalCache.isActive(1L, "user@example.com"));
+        verify(userRepository, times(1)).findStatusById(1L);
+
+        principalCache.invalidate(1L);
+        assertFalse(principalCache.isActive(1L, "user@example.com"));
+        verify(userRepository, times(2)).findStatusById(1L);
+    }
+
+    @Test
+    void invalidateAfterCommit_shouldKeepTheEntryUntilTheTransactionCommits() {
+        // --- ARRANGE ---
+        when(userRepository.findStatusById(1L)).thenReturn(Optional.of(status("user@example.com", true)));
+        principalCache.isActive(1L, "user@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // --- ACT ---
+            principalCache.invalidateAfterCommit(1L);
+            principalCache.isActive(1L, "user@example.com");
+            verify(userRepository, times(1)).findStatusById(1L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // --- ASSERT ---
+        principalCache.isActive(1L, "user@example.com");
+        verify(userRepository, times(2)).findStatusById(1L);
+    }
+
+    @Test
+    void isActive_whenUserIsGoneOrEmailChanged_shouldReturnFalse() {
+        // --- ARRANGE ---
+        when(userRepository.findStatusById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findStatusById(2L)).thenReturn(Optional.of(status("new@example.com", true)));
+
+        // --- ACT & ASSERT ---
+        assertFalse(principalCache.isActive(1L, "deleted@example.com"));
+        assertFalse(principalCache.isActive(2L, "old@example.com"));
+    }
+
+    private UserStatusView status(String email, boolean active) {
+        return new UserStatusView() {
+            public String getEmail() { return email; }
+            public Boolean getActive() { return active; }
+        };
+    }
+}
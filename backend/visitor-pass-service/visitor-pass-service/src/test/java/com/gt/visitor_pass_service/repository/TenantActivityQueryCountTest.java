@@ -0,0 +1,174 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.dto.TenantActivityDTO;
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.service.SuperAdminDashboardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Asserts that the super admin's per-location activity is computed with a fixed number of queries,
+ * however many locations there are, and that the locations listing pages, sorts and filters in the database.
+ * Runs against an in-memory H2 database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TenantActivityQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private VisitorPassRepository passRepository;
+
+    private SuperAdminDashboardService dashboardService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // The pass mapper is not used by the tenant activity
+        dashboardService = new SuperAdminDashboardService(tenantRepository, userRepository, passRepository, null);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getPaginatedTenantActivity_shouldUseFixedNumberOfQueriesAndCountPerTenant() {
+        // --- ARRANGE ---
+        Tenant busy = tenant("Busy Office");
+        User employee = user(busy, "busy-employee");
+        user(busy, "busy-approver");
+        pass(busy, employee, LocalDateTime.now().withHour(12), "B1");
+        pass(busy, employee, LocalDateTime.now().minusDays(3), "B2");
+        pass(busy, employee, LocalDateTime.now().minusDays(4), "B3");
+
+        Tenant quiet = tenant("Quiet Office");
+        user(quiet, "quiet-employee");
+        tenant("Empty Office");
+        entityManager.flush();
+
+        // --- ACT ---
+        List<TenantActivityDTO> few = activity();
+        long queriesForFew = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 20; i++) {
+            Tenant extra = tenant("Extra Office " + i);
+            pass(extra, user(extra, "extra-employee" + i), LocalDateTime.now().withHour(10), "E" + i);
+        }
+        entityManager.flush();
+        activity();
+        long queriesForMany = statistics.getPrepareStatementCount();
+
+        // --- ASSERT ---
+        // 1 tenant query + 3 grouped counts
+        assertEquals(4, queriesForFew);
+        assertEquals(queriesForFew, queriesForMany);
+
+        TenantActivityDTO busyActivity = few.stream().filter(a -> a.getTenantId().equals(busy.getId())).findFirst().orElseThrow();
+        assertEquals(2, busyActivity.getUserCount());
+        assertEquals(1, busyActivity.getPassesToday());
+        assertEquals(3, busyActivity.getTotalPassesAllTime());
+        TenantActivityDTO quietActivity = few.stream().filter(a -> a.getTenantId().equals(quiet.getId())).findFirst().orElseThrow();
+        assertEquals(1, quietActivity.getUserCount());
+        assertEquals(0, quietActivity.getTotalPassesAllTime());
+    }
+
+    @Test
+    void getPaginatedTenantActivity_shouldPageSortAndFilterInTheDatabase() {
+        // --- ARRANGE ---
+        // "Site i" has i passes and 3 - i users
+        for (int i = 0; i < 4; i++) {
+            Tenant site = tenant("Site " + i);
+            site.setLocationDetails(i % 2 == 0 ? "North wing" : "South wing");
+            User creator = user(site, "site" + i + "-employee");
+            for (int u = 1; u < 3 - i; u++) {
+                user(site, "site" + i + "-user" + u);
+            }
+            for (int p = 0; p < i; p++) {
+                pass(site, creator, LocalDateTime.now().minusDays(1), "S" + i + "P" + p);
+            }
+        }
+        entityManager.flush();
+
+        // --- ACT ---
+        entityManager.clear();
+        List<TenantActivityDTO> busiest = dashboardService.getPaginatedTenantActivity(null,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "totalPassesAllTime"))).getContent();
+        List<TenantActivityDTO> secondPage = dashboardService.getPaginatedTenantActivity(null,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "totalPassesAllTime"))).getContent();
+        Page<TenantActivityDTO> mostUsers = dashboardService.getPaginatedTenantActivity("south",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "userCount")));
+        List<TenantActivityDTO> byName = dashboardService.getPaginatedTenantActivity("SITE",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "tenantName"))).getContent();
+
+        // --- ASSERT ---
+        assertEquals(List.of("Site 3", "Site 2"), busiest.stream().map(TenantActivityDTO::getTenantName).toList());
+        assertEquals(3, busiest.get(0).getTotalPassesAllTime());
+        assertEquals(List.of("Site 1", "Site 0"), secondPage.stream().map(TenantActivityDTO::getTenantName).toList());
+        assertEquals(2, mostUsers.getTotalElements()); // Site 1 and Site 3
+        assertEquals("Site 1", mostUsers.getContent().get(0).getTenantName());
+        assertEquals(2, mostUsers.getContent().get(0).getUserCount());
+        assertEquals(List.of("Site 3", "Site 2", "Site 1", "Site 0"), byName.stream().map(TenantActivityDTO::getTenantName).toList());
+        assertThrows(IllegalArgumentException.class, () -> dashboardService.getPaginatedTenantActivity(null,
+                PageRequest.of(0, 10, Sort.by("createdAt"))));
+    }
+
+    private List<TenantActivityDTO> activity() {
+        entityManager.clear();
+        statistics.clear();
+        return dashboardService.getPaginatedTenantActivity(null, PageRequest.of(0, 100)).getContent();
+    }
+
+    private Tenant tenant(String name) {
+        Tenant tenant = new Tenant();
+        tenant.setName(name);
+        entityManager.persist(tenant);
+        return tenant;
+    }
+
+    private User user(Tenant tenant, String name) {
+        User user = new User();
+        user.setUniqueId(name);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setRole("ROLE_EMPLOYEE");
+        user.setTenant(tenant);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private void pass(Tenant tenant, User creator, LocalDateTime visitDateTime, String passCode) {
+        VisitorPass pass = new VisitorPass();
+        pass.setTenant(tenant);
+        pass.setVisitorName("Visitor " + passCode);
+        pass.setVisitorEmail(passCode + "@example.com");
+        pass.setVisitorPhone("555-0000");
+        pass.setPurpose("Meeting");
+        pass.setVisitDateTime(visitDateTime);
+        pass.setPassCode(passCode);
+        pass.setStatus(PassStatus.PENDING);
+        pass.setCreatedBy(creator);
+        entityManager.persist(pass);
+    }
+}
@@ -0,0 +1,146 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.dto.CursorPage;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.service.VisitorPassService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements Hibernate issues for each pass listing, including the mapToResponse step,
+ * and asserts the count does not grow with the page size (i.e. no lazy load per row), and that
+ * cursor pages need no COUNT query.
+ * Runs against an in-memory H2 database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class VisitorPassListingQueryCountTest {
+
+    private static final int PASS_COUNT = 25;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private VisitorPassRepository passRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private VisitorPassService visitorPassService;
+    private Statistics statistics;
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        // Only the repositories are needed by the listing methods under test
+        visitorPassService = new VisitorPassService(passRepository, userRepository, null, null, null, null, null, null, null, null, null, null);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        tenant = new Tenant();
+        tenant.setName("Main Office");
+        entityManager.persist(tenant);
+
+        // Every other pass belongs to employee0 (for the history listing); all other creators and approvers are distinct
+        User historyOwner = user("employee0", "ROLE_EMPLOYEE");
+        for (int i = 0; i < PASS_COUNT; i++) {
+            User employee = i % 2 == 0 ? historyOwner : user("employee" + i, "ROLE_EMPLOYEE");
+            User approver = user("approver" + i, "ROLE_APPROVER");
+            VisitorPass pass = new VisitorPass();
+            pass.setTenant(tenant);
+            pass.setVisitorName("Visitor " + i);
+            pass.setVisitorEmail("visitor" + i + "@example.com");
+            pass.setVisitorPhone("555-000" + i);
+            pass.setPurpose("Meeting");
+            pass.setVisitDateTime(LocalDateTime.now().withHour(12));
+            pass.setPassCode("CODE" + i);
+            pass.setStatus(PassStatus.APPROVED);
+            pass.setCreatedBy(employee);
+            pass.setApprovedBy(approver);
+            entityManager.persist(pass);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void getPassesByTenant_shouldUseFixedNumberOfQueries() {
+        assertQueryCountIndependentOfPageSize(2, size -> visitorPassService.getPassesByTenant(tenant.getId(), PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPassesByStatus_shouldUseFixedNumberOfQueries() {
+        assertQueryCountIndependentOfPageSize(2, size -> visitorPassService.getPassesByStatus(tenant.getId(), "APPROVED", PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPassHistoryForUser_shouldUseFixedNumberOfQueries() {
+        // 1 user lookup + page + count
+        assertQueryCountIndependentOfPageSize(3, size -> visitorPassService.getPassHistoryForUser("employee0@example.com", PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getTodaysVisitorsPaginated_shouldUseFixedNumberOfQueries() {
+        assertQueryCountIndependentOfPageSize(2, size -> visitorPassService.getTodaysVisitorsPaginated(tenant.getId(), PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPassesByTenantWithCursor_shouldVisitEveryPassOnceWithOneQueryPerPage() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            entityManager.clear();
+            statistics.clear();
+
+            CursorPage<VisitorPassResponse> page = visitorPassService.getPassesByTenant(tenant.getId(), cursor, 10);
+
+            assertEquals(1, statistics.getPrepareStatementCount(), "queries for page " + pages);
+            page.getContent().forEach(pass -> assertTrue(seen.add(pass.getId()), "pass " + pass.getId() + " repeated"));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(PASS_COUNT, seen.size());
+    }
+
+    private void assertQueryCountIndependentOfPageSize(long expectedQueries, IntConsumer listing) {
+        for (int size : new int[]{5, 10}) {
+            entityManager.clear();
+            statistics.clear();
+
+            listing.accept(size);
+
+            assertEquals(expectedQueries, statistics.getPrepareStatementCount(), "queries for page size " + size);
+        }
+    }
+
+    private User user(String name, String role) {
+        User user = new User();
+        user.setUniqueId(name);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setRole(role);
+        user.setTenant(tenant);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs EXPLAIN against the real MySQL schema for the SQL Hibernate generates for each "today" query in
+ * VisitorPassRepository, and asserts MySQL picks an index instead of a full table scan. The SQL is captured
+ * with a StatementInspector while the repository method runs, and explained with the same parameter values.
+ *
+ * Needs a running MySQL (same settings as the application), so it is opt-in:
+ *   mvn test -Dtest=VisitorPassRepositoryIndexTest -Dmysql.explain=true
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.gt.visitor_pass_service.repository.VisitorPassRepositoryIndexTest$SqlCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "mysql.explain", matches = "true")
+class VisitorPassRepositoryIndexTest {
+
+    private static final LocalDateTime START = LocalDate.now().atStartOfDay();
+    private static final LocalDateTime END = LocalDate.now().plusDays(1).atStartOfDay();
+
+    @Autowired
+    private VisitorPassRepository passRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void findTodaysVisitorsByTenantAndStatusIn_shouldUseIndex() {
+        passRepository.findTodaysVisitorsByTenantAndStatusIn(1L, START, END,
+                List.of(PassStatus.APPROVED, PassStatus.CHECKED_IN), PageRequest.of(0, 10));
+        assertUsesIndex(1L, START, END, "APPROVED", "CHECKED_IN", 10);
+    }
+
+    @Test
+    void findTodaysVisitorsByTenant_shouldUseIndex() {
+        passRepository.findTodaysVisitorsByTenant(1L, START, END);
+        assertUsesIndex(1L, START, END);
+    }
+
+    @Test
+    void countApprovedForToday_shouldUseIndex() {
+        passRepository.countApprovedForToday(1L, START, END);
+        assertUsesIndex(1L, START, END);
+    }
+
+    @Test
+    void countCompletedForToday_shouldUseIndex() {
+        passRepository.countCompletedForToday(1L, START, END);
+        assertUsesIndex(1L, START, END);
+    }
+
+    @Test
+    void countActivePassesForToday_shouldUseIndex() {
+        passRepository.countActivePassesForToday(START, END);
+        assertUsesIndex(START, END);
+    }
+
+    @Test
+    void countPassesForTenantToday_shouldUseIndex() {
+        passRepository.countPassesForTenantToday(1L, START, END);
+        assertUsesIndex(1L, START, END);
+    }
+
+    @Test
+    void findByCreatedById_shouldUseIndex() {
+        passRepository.findByCreatedById(1L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertUsesIndex(1L, 10);
+    }
+
+    /**
+     * Explains the one statement the repository call issued, binding the given values to its parameters in order.
+     */
+    private void assertUsesIndex(Object... parameters) {
+        assertEquals(1, SqlCapture.STATEMENTS.size(), "Expected one statement: " + SqlCapture.STATEMENTS);
+        String sql = SqlCapture.STATEMENTS.get(0);
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), "Parameters do not match: " + sql);
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        assertFalse(plan.isEmpty(), "EXPLAIN returned no rows for: " + sql);
+        for (Map<String, Object> row : plan) {
+            assertNotNull(row.get("key"), "Query does not use an index: " + sql + " -> " + row);
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares; instantiated by Hibernate, hence the static list.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the row-locking reads of the bulk decision and expiry chunks in competing transactions against an
+ * in-memory H2 database. Each transaction commits, so the rows are removed again after each test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitorPassRowLockTest {
+
+    @Autowired
+    private VisitorPassRepository passRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Tenant tenant;
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        tenant = new Tenant();
+        tenant.setName("Main Office");
+        tenant = tenantRepository.save(tenant);
+        employee = new User();
+        employee.setUniqueId("employee");
+        employee.setName("employee");
+        employee.setEmail("employee@example.com");
+        employee.setRole("ROLE_EMPLOYEE");
+        employee.setTenant(tenant);
+        employee = userRepository.save(employee);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passRepository.deleteAll();
+        userRepository.deleteAll();
+        tenantRepository.deleteAll();
+    }
+
+    @Test
+    void lockApprovedPassIdsSkipLocked_shouldLeaveOutPassesAnotherExpirerExpired() throws Exception {
+        // --- ARRANGE ---
+        // H2 has no SKIP LOCKED, so here the second expirer waits for the first one's rows instead of skipping them
+        // as MySQL does; either way it must not get them back
+        Long contested = pass("CODE1", PassStatus.APPROVED);
+        Long free = pass("CODE2", PassStatus.APPROVED);
+        Long checkedIn = pass("CODE3", PassStatus.CHECKED_IN);
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<List<Long>> otherNode = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = passRepository.lockApprovedPassIdsSkipLocked(List.of(contested));
+            locked.countDown();
+            sleep(300L);
+            passRepository.expireApprovedPasses(ids, LocalDateTime.now());
+            return ids;
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // --- ACT ---
+        List<Long> ours = transactionTemplate.execute(status ->
+                passRepository.lockApprovedPassIdsSkipLocked(List.of(contested, free, checkedIn)));
+
+        // --- ASSERT ---
+        assertEquals(List.of(contested), otherNode.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(free), ours);
+    }
+
+    @Test
+    void lockPendingPassIds_shouldWaitForAConcurrentDecisionAndThenLeaveItsRowsOut() throws Exception {
+        // --- ARRANGE ---
+        Long contested = pass("CODE1", PassStatus.PENDING);
+        Long free = pass("CODE2", PassStatus.PENDING);
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> otherRequest = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            passRepository.lockPendingPassIds(List.of(contested));
+            locked.countDown();
+            sleep(300L);
+            passRepository.decidePendingPasses(List.of(contested), PassStatus.REJECTED, null, "No", LocalDateTime.now());
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // --- ACT ---
+        List<Long> ours = transactionTemplate.execute(status -> passRepository.lockPendingPassIds(List.of(contested, free)));
+
+        // --- ASSERT ---
+        otherRequest.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(free), ours);
+        assertEquals(PassStatus.REJECTED, passRepository.findById(contested).orElseThrow().getStatus());
+    }
+
+    private Long pass(String passCode, PassStatus status) {
+        VisitorPass pass = new VisitorPass();
+        pass.setTenant(tenant);
+        pass.setVisitorName("Visitor " + passCode);
+        pass.setVisitorEmail("visitor@example.com");
+        pass.setVisitorPhone("555-0000");
+        pass.setPurpose("Meeting");
+        pass.setVisitDateTime(LocalDateTime.now().minusHours(3));
+        pass.setPassCode(passCode);
+        pass.setStatus(status);
+        pass.setCreatedBy(employee);
+        return passRepository.save(pass).getId();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionRequest;
+import com.gt.visitor_pass_service.dto.BulkPassDecisionResponse;
+import com.gt.visitor_pass_service.dto.PassApprovedEvent;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkPassDecisionServiceTest {
+
+    @Mock
+    private VisitorPassRepository passRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private RabbitOperations rabbitOperations;
+    @Mock
+    private WebSocketUpdateService webSocketUpdateService;
+    @Mock
+    private PassExpiryScheduler passExpiryScheduler;
+    @Mock
+    private PassCodeIndex passCodeIndex;
+    @Mock
+    private TenantPassCounters tenantPassCounters;
+    @Mock
+    private DashboardCache dashboardCache;
+    @Mock
+    private GateRosterFeed gateRosterFeed;
+    @Mock
+    private PassRollupService passRollupService;
+    @Mock
+    private VisitorPassService visitorPassService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkPassDecisionService bulkPassDecisionService;
+    private Tenant tenant;
+    private User approver;
+
+    @BeforeEach
+    void setUp() {
+        bulkPassDecisionService = new BulkPassDecisionService(passRepository, userRepository, auditService, rabbitTemplate,
+                webSocketUpdateService, passExpiryScheduler, passCodeIndex, tenantPassCounters, dashboardCache, gateRosterFeed, passRollupService, visitorPassService, transactionManager, 100, 1000L);
+
+        tenant = new Tenant();
+        tenant.setId(1L);
+        approver = new User();
+        approver.setId(20L);
+        approver.setEmail("approver@example.com");
+    }
+
+    @Test
+    void decide_shouldApprovePendingPassesAndReportEveryOtherPass() {
+        // --- ARRANGE ---
+        // Pass 1 is pending, pass 2 was already approved, pass 3 does not belong to this tenant, and pass 4 was
+        // pending when read but decided by another request before this one could lock it.
+        VisitorPass pending = pass(1L, PassStatus.PENDING);
+        VisitorPass alreadyApproved = pass(2L, PassStatus.APPROVED);
+        VisitorPass decidedElsewhere = pass(4L, PassStatus.PENDING);
+        BulkPassDecisionRequest request = new BulkPassDecisionRequest();
+        request.setAction("APPROVE");
+        request.setPassIds(List.of(1L, 2L, 3L, 1L, 4L));
+
+        when(userRepository.findByEmail("approver@example.com")).thenReturn(Optional.of(approver));
+        when(passRepository.findWithCreatorByTenantIdAndIdIn(1L, List.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(pending, alreadyApproved, decidedElsewhere));
+        when(passRepository.lockPendingPassIds(List.of(1L, 4L))).thenReturn(List.of(1L));
+        when(auditService.buildLog(anyString(), any(), any(), any())).thenReturn(new AuditLog());
+        when(visitorPassService.mapToResponse(any(VisitorPass.class))).thenReturn(new VisitorPassResponse());
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitOperations);
+        });
+
+        // --- ACT ---
+        BulkPassDecisionResponse response = bulkPassDecisionService.decide(1L, request, "approver@example.com");
+
+        // --- ASSERT ---
+        assertEquals(4, response.getRequested());
+        assertEquals(1, response.getSucceeded());
+        assertEquals("APPROVED", response.getResults().get(0).getOutcome());
+        assertEquals("NOT_PENDING", response.getResults().get(1).getOutcome());
+        assertEquals("NOT_FOUND", response.getResults().get(2).getOutcome());
+        assertEquals("NOT_PENDING", response.getResults().get(3).getOutcome());
+        verify(passRepository).decidePendingPasses(eq(List.of(1L)), eq(PassStatus.APPROVED), eq(approver), isNull(), any(LocalDateTime.class));
+
+        ArgumentCaptor<PassApprovedEvent> eventCaptor = ArgumentCaptor.forClass(PassApprovedEvent.class);
+        verify(rabbitOperations, times(1)).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ROUTING_KEY_APPROVED), eventCaptor.capture());
+        assertEquals(1L, eventCaptor.getValue().getPassId());
+        verify(rabbitOperations, times(1)).waitForConfirmsOrDie(1000L);
+        verify(auditService, times(1)).logEvents(argThat(logs -> logs.size() == 1));
+        verify(passExpiryScheduler, times(1)).schedule(eq(1L), any());
+        verify(webSocketUpdateService, times(1)).notifyPassChanged(eq(1L), eq(1L), any(), any(), any(), eq(PassStatus.PENDING), eq(PassStatus.APPROVED));
+    }
+
+    @Test
+    void decide_whenRejectingWithoutReason_shouldThrowIllegalArgumentException() {
+        // --- ARRANGE ---
+        BulkPassDecisionRequest request = new BulkPassDecisionRequest();
+        request.setAction("REJECT");
+        request.setPassIds(List.of(1L));
+
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, () -> bulkPassDecisionService.decide(1L, request, "approver@example.com"));
+        verifyNoInteractions(passRepository);
+    }
+
+    private VisitorPass pass(Long id, PassStatus status) {
+        User employee = new User();
+        employee.setEmail("employee@example.com");
+        VisitorPass pass = new VisitorPass();
+        pass.setId(id);
+        pass.setStatus(status);
+        pass.setTenant(tenant);
+        pass.setCreatedBy(employee);
+        pass.setVisitDateTime(LocalDateTime.now().plusDays(1));
+        return pass;
+    }
+}
@@ -0,0 +1,74 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.TenantDashboardResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardCacheTest {
+
+    private final DashboardCache cache = new DashboardCache(60_000L);
+
+    @Test
+    void getTenantDashboard_shouldServeCachedResponseUntilAPassOfThatTenantChanges() {
+        // --- ARRANGE ---
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<TenantDashboardResponse> loader = () -> {
+            loads.incrementAndGet();
+            return TenantDashboardResponse.builder().staleSections(List.of()).build();
+        };
+
+        // --- ACT ---
+        DashboardCache.Cached<TenantDashboardResponse> first = cache.getTenantDashboard(1L, loader);
+        DashboardCache.Cached<TenantDashboardResponse> second = cache.getTenantDashboard(1L, loader);
+        String eTagBeforeChange = cache.getTenantDashboardETag(1L);
+        cache.invalidateTenant(2L); // another tenant's pass changed
+        String eTagAfterOtherTenant = cache.getTenantDashboardETag(1L);
+        cache.invalidateTenant(1L);
+        String eTagAfterChange = cache.getTenantDashboardETag(1L);
+        DashboardCache.Cached<TenantDashboardResponse> third = cache.getTenantDashboard(1L, loader);
+
+        // --- ASSERT ---
+        assertEquals(2, loads.get());
+        assertSame(first.value(), second.value());
+        assertEquals(first.eTag(), eTagBeforeChange);
+        assertEquals(first.eTag(), eTagAfterOtherTenant);
+        assertNull(eTagAfterChange);
+        assertNotEquals(first.eTag(), third.eTag());
+        assertTrue(DashboardCache.isNotModified("W/\"other\", " + third.eTag(), third.eTag()));
+        assertFalse(DashboardCache.isNotModified(first.eTag(), third.eTag()));
+    }
+
+    @Test
+    void getTenantDashboard_shouldNotCacheResponsesWithStaleSectionsOrInvalidatedWhileLoading() {
+        // --- ARRANGE ---
+        Supplier<TenantDashboardResponse> partial = () -> TenantDashboardResponse.builder()
+                .staleSections(List.of(DashboardService.SECTION_RECENT_EMAIL_ACTIVITY)).build();
+        Supplier<TenantDashboardResponse> invalidatedWhileLoading = () -> {
+            cache.invalidateTenant(1L);
+            return TenantDashboardResponse.builder().staleSections(List.of()).build();
+        };
+
+        // --- ACT & ASSERT ---
+        assertNotNull(cache.getTenantDashboard(1L, partial).eTag());
+        assertNull(cache.getTenantDashboardETag(1L));
+        cache.getTenantDashboard(1L, invalidatedWhileLoading);
+        assertNull(cache.getTenantDashboardETag(1L));
+    }
+
+    @Test
+    void invalidateTenant_shouldAlsoMoveTheGlobalVersion() {
+        // --- ARRANGE ---
+        long before = cache.getGlobalVersion();
+
+        // --- ACT ---
+        cache.invalidateTenant(5L);
+
+        // --- ASSERT ---
+        assertNotEquals(before, cache.getGlobalVersion());
+    }
+}
@@ -0,0 +1,90 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.TenantDashboardResponse;
+import com.gt.visitor_pass_service.dto.TenantDashboardStats;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.repository.AuditLogRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private VisitorPassRepository passRepository;
+    @Mock
+    private AuditLogRepository auditLogRepository;
+    @Mock
+    private VisitorPassService visitorPassService;
+    @Mock
+    private TenantPassCounters tenantPassCounters;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(passRepository, auditLogRepository, visitorPassService, tenantPassCounters,
+                "http://localhost:1", 200L, 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void getTenantDashboardData_whenOneSectionIsSlow_shouldReturnTheOthersAndFlagItAsStale() {
+        // --- ARRANGE ---
+        TenantDashboardStats stats = TenantDashboardStats.builder().pendingPasses(3).build();
+        when(tenantPassCounters.getStats(1L)).thenReturn(stats);
+        when(passRepository.findTop10ByTenantIdOrderByCreatedAtDesc(1L)).thenReturn(List.of());
+        when(auditLogRepository.findTop10ByTenantIdAndPassIdIsNotNullOrderByTimestampDesc(1L)).thenAnswer(invocation -> {
+            Thread.sleep(2_000L);
+            return List.of(new AuditLog());
+        });
+
+        // --- ACT ---
+        long started = System.nanoTime();
+        TenantDashboardResponse response = dashboardService.getTenantDashboardData(1L);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000L;
+
+        // --- ASSERT ---
+        assertEquals(List.of(DashboardService.SECTION_RECENT_PASS_ACTIVITY), response.getStaleSections());
+        assertSame(stats, response.getStats());
+        assertTrue(response.getRecentPassActivity().isEmpty());
+        assertTrue(response.getRecentEmailActivity().isEmpty()); // no recent passes, so no call to the notification-service
+        assertTrue(elapsedMs < 1_500L, "took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getTenantDashboardData_whenNotificationServiceIsDown_shouldFlagEmailActivityAsStale() {
+        // --- ARRANGE ---
+        VisitorPass pass = new VisitorPass();
+        VisitorPassResponse passResponse = new VisitorPassResponse();
+        passResponse.setId(7L);
+        when(tenantPassCounters.getStats(1L)).thenReturn(TenantDashboardStats.builder().build());
+        when(passRepository.findTop10ByTenantIdOrderByCreatedAtDesc(1L)).thenReturn(List.of(pass));
+        when(visitorPassService.mapToResponse(pass)).thenReturn(passResponse);
+        when(auditLogRepository.findTop10ByTenantIdAndPassIdIsNotNullOrderByTimestampDesc(1L)).thenReturn(List.of());
+
+        // --- ACT ---
+        TenantDashboardResponse response = dashboardService.getTenantDashboardData(1L);
+
+        // --- ASSERT ---
+        assertEquals(List.of(DashboardService.SECTION_RECENT_EMAIL_ACTIVITY), response.getStaleSections());
+        assertEquals(1, response.getRecentPasses().size());
+        assertTrue(response.getRecentEmailActivity().isEmpty());
+    }
+}
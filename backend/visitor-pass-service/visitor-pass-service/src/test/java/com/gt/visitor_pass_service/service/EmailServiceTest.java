@@ -0,0 +1,48 @@
+package com.gt.visitor_pass_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailServiceTest {
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "emailTemplateEngine", new EmailTemplateEngine());
+        ReflectionTestUtils.setField(emailService, "appName", "Visitor Pass System");
+        ReflectionTestUtils.setField(emailService, "appUrl", "https://app.example.com/?ref=mail&lang=en");
+    }
+
+    @Test
+    void buildComprehensiveTenantWelcomeEmail_shouldFillEveryValueEscaped() {
+        // --- ACT ---
+        String html = emailService.buildComprehensiveTenantWelcomeEmail("Asha <Admin>", "+91 98765 43210",
+                "Pune \"HQ\"", "Baner Road, Pune", "asha@example.com", "Tmp&Pass1", "Super Admin");
+
+        // --- ASSERT ---
+        assertFalse(html.contains("{{"));
+        assertTrue(html.contains("<p>Dear <strong>Asha &lt;Admin&gt;</strong>,</p>"));
+        assertTrue(html.contains("<strong>\"Pune &quot;HQ&quot;\"</strong>"));
+        assertTrue(html.contains("<code>Tmp&amp;Pass1</code>"));
+        assertTrue(html.contains("href=\"https://app.example.com/?ref=mail&amp;lang=en\""));
+        assertTrue(html.contains("#667eea 0%, #764ba2 100%"));
+    }
+
+    @Test
+    void buildTenantAdminWelcomeEmailContent_shouldReuseTheCompiledTemplate() {
+        // --- ACT ---
+        String first = emailService.buildTenantAdminWelcomeEmailContent("Asha", "Pune HQ", "asha@example.com", "pw1", "Super Admin");
+        String second = emailService.buildTenantAdminWelcomeEmailContent("Ravi", "Mumbai", "ravi@example.com", "pw2", "Super Admin");
+
+        // --- ASSERT ---
+        assertFalse(first.contains("{{"));
+        assertTrue(first.contains("<p><strong>Temporary Password:</strong> <code>pw1</code></p>"));
+        assertTrue(second.contains("<p>Dear <strong>Ravi</strong>,</p>"));
+        assertFalse(second.contains("Asha"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GateRosterFeedTest {
+
+    @Mock
+    private WebSocketClusterRelay relay;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private GateRosterFeed gateRosterFeed;
+
+    @BeforeEach
+    void setUp() {
+        gateRosterFeed = new GateRosterFeed(relay, objectMapper, 60_000L, 60_000L) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateRosterFeed.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldSendTheRosterAndLoadItOnlyOncePerTenant() throws Exception {
+        // --- ARRANGE ---
+        AtomicInteger loads = new AtomicInteger();
+        List<VisitorPassResponse> roster = List.of(pass(1L, "APPROVED"), pass(2L, "CHECKED_IN"));
+
+        // --- ACT ---
+        RecordingEmitter first = (RecordingEmitter) gateRosterFeed.subscribe(1L, tenantId -> {
+            loads.incrementAndGet();
+            return roster;
+        });
+        RecordingEmitter second = (RecordingEmitter) gateRosterFeed.subscribe(1L, tenantId -> {
+            loads.incrementAndGet();
+            return roster;
+        });
+
+        // --- ASSERT ---
+        assertEquals(1, loads.get());
+        assertEquals(2, gateRosterFeed.subscriberCount(1L));
+        assertEquals(List.of("roster"), first.awaitEvents(1));
+        assertEquals(roster, second.awaitPayloads(1).get(0));
+    }
+
+    @Test
+    void onPassChanged_shouldStreamTheChangeKeepTheRosterCurrentAndRelayIt() throws Exception {
+        // --- ARRANGE ---
+        RecordingEmitter gate = (RecordingEmitter) gateRosterFeed.subscribe(1L, tenantId -> List.of(pass(1L, "APPROVED")));
+        VisitorPassResponse checkedOut = pass(1L, "CHECKED_OUT");
+        VisitorPassResponse approvedTomorrow = pass(2L, "APPROVED");
+        approvedTomorrow.setVisitDateTime(LocalDateTime.now().plusDays(1));
+
+        // --- ACT ---
+        gateRosterFeed.onPassChanged(checkedOut);
+        gateRosterFeed.onPassChanged(approvedTomorrow);
+
+        // --- ASSERT ---
+        assertEquals(List.of("roster", "pass"), gate.awaitEvents(2));
+        assertEquals(checkedOut, gate.awaitPayloads(2).get(1));
+        verify(relay).send("/topic/gate/1", checkedOut);
+        verify(relay, never()).send("/topic/gate/1", approvedTomorrow);
+
+        // A later subscriber gets the roster without the checked-out pass and without a query
+        RecordingEmitter late = (RecordingEmitter) gateRosterFeed.subscribe(1L, tenantId -> fail("Roster should not be reloaded"));
+        assertEquals(List.of(), late.awaitPayloads(1).get(0));
+    }
+
+    @Test
+    void relayedChanges_shouldReachThisNodesSubscribers() throws Exception {
+        // --- ARRANGE ---
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<BiConsumer<String, String>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(relay).addRelayedListener(eq("/topic/gate/"), listener.capture());
+        RecordingEmitter gate = (RecordingEmitter) gateRosterFeed.subscribe(1L, tenantId -> List.of());
+        VisitorPassResponse checkedIn = pass(3L, "CHECKED_IN");
+
+        // --- ACT ---
+        listener.getValue().accept("/topic/gate/1", objectMapper.writeValueAsString(checkedIn));
+
+        // --- ASSERT ---
+        assertEquals(List.of("roster", "pass"), gate.awaitEvents(2));
+        assertEquals(checkedIn, gate.awaitPayloads(2).get(1));
+        verify(relay, never()).send(eq("/topic/gate/1"), eq(checkedIn));
+    }
+
+    private VisitorPassResponse pass(Long id, String status) {
+        VisitorPassResponse response = new VisitorPassResponse();
+        response.setId(id);
+        response.setTenantId(1L);
+        response.setPassCode("CODE" + id);
+        response.setVisitorName("Visitor " + id);
+        response.setStatus(status);
+        response.setVisitDateTime(LocalDateTime.now().withNano(0));
+        return response;
+    }
+
+    /**
+     * Records the name and data of every event instead of writing to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<Object> payloads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String name = null;
+            Object payload = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text && text.contains("event:")) {
+                    name = text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:")));
+                } else if (!(part.getData() instanceof String)) {
+                    payload = part.getData();
+                }
+            }
+            if (name != null) {
+                payloads.add(payload);
+                names.add(name);
+            }
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 2_000L;
+            while (names.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            return new ArrayList<>(names);
+        }
+
+        List<Object> awaitPayloads(int count) throws InterruptedException {
+            awaitEvents(count);
+            return new ArrayList<>(payloads);
+        }
+    }
+}
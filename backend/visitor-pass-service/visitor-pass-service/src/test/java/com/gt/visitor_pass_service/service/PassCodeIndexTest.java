@@ -0,0 +1,143 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PassCodeIndexTest {
+
+    private final WebSocketClusterRelay relay = mock(WebSocketClusterRelay.class);
+
+    @Test
+    void put_whenTenantIsFull_shouldEvictLeastRecentlyUsedPass() {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 2, 60_000L);
+        index.put(response("AAAA0001", "APPROVED", LocalDateTime.now()));
+        index.put(response("AAAA0002", "APPROVED", LocalDateTime.now()));
+        index.get(1L, "AAAA0001"); // touch so AAAA0002 becomes the eldest
+
+        // --- ACT ---
+        index.put(response("AAAA0003", "PENDING", LocalDateTime.now().plusDays(1)));
+
+        // --- ASSERT ---
+        assertNotNull(index.get(1L, "AAAA0001"));
+        assertNull(index.get(1L, "AAAA0002"));
+        assertNotNull(index.get(1L, "AAAA0003"));
+
+        Map<String, Object> stats = index.getStats();
+        assertEquals(2, stats.get("entries"));
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    void put_whenPassIsTerminalOrOutsideWindow_shouldDropIt() {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 10, 60_000L);
+        index.put(response("BBBB0001", "CHECKED_IN", LocalDateTime.now()));
+
+        // --- ACT ---
+        index.put(response("BBBB0001", "CHECKED_OUT", LocalDateTime.now()));
+        index.put(response("BBBB0002", "APPROVED", LocalDateTime.now().plusDays(3)));
+
+        // --- ASSERT ---
+        assertNull(index.get(1L, "BBBB0001"));
+        assertNull(index.get(1L, "BBBB0002"));
+        assertEquals(0, index.getStats().get("entries"));
+    }
+
+    @Test
+    void get_whenEntryIsOlderThanMaxAge_shouldMissSoThePassIsReadAgain() throws InterruptedException {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 10, 50L);
+        index.put(response("CCCC0001", "APPROVED", LocalDateTime.now()));
+
+        // --- ACT ---
+        Thread.sleep(100L);
+
+        // --- ASSERT ---
+        assertNull(index.get(1L, "CCCC0001"));
+        assertEquals(0, index.getStats().get("entries"));
+        assertEquals(1L, index.getStats().get("misses"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayedGateChange_shouldEvictThePassChangedOnAnotherNode() {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 10, 60_000L);
+        ArgumentCaptor<BiConsumer<String, String>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(relay).addRelayedListener(eq("/topic/gate/"), listener.capture());
+        index.put(response("DDDD0001", "APPROVED", LocalDateTime.now()));
+        index.put(response("DDDD0002", "APPROVED", LocalDateTime.now()));
+
+        // --- ACT ---
+        listener.getValue().accept("/topic/gate/1",
+                "{\"tenantId\":1,\"passCode\":\"DDDD0001\",\"status\":\"CHECKED_IN\",\"visitDateTime\":[2026,1,1,10,0]}");
+        listener.getValue().accept("/topic/gate/1", "not json");
+
+        // --- ASSERT ---
+        assertNull(index.get(1L, "DDDD0001"));
+        assertNotNull(index.get(1L, "DDDD0002"));
+    }
+
+    @Test
+    void put_whenANewerVersionIsIndexed_shouldKeepIt() {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 10, 60_000L);
+        index.put(response("EEEE0001", "CHECKED_IN", LocalDateTime.now(), 2L));
+
+        // --- ACT ---
+        index.put(response("EEEE0001", "APPROVED", LocalDateTime.now(), 1L));
+
+        // --- ASSERT ---
+        assertEquals("CHECKED_IN", index.get(1L, "EEEE0001").getStatus());
+    }
+
+    @Test
+    void putIfAbsent_whenAReadRacedWithATransition_shouldNotBringThePassBack() {
+        // --- ARRANGE ---
+        PassCodeIndex index = new PassCodeIndex(relay, new ObjectMapper(), 10, 60_000L);
+        // A scan read version 1 from the database; before it indexed it, the pass got checked in, then out
+        VisitorPassResponse readBeforeTransitions = response("FFFF0001", "APPROVED", LocalDateTime.now(), 1L);
+        index.put(response("FFFF0001", "CHECKED_IN", LocalDateTime.now(), 2L));
+        index.put(response("FFFF0001", "CHECKED_OUT", LocalDateTime.now(), 3L));
+        index.put(response("FFFF0002", "APPROVED", LocalDateTime.now(), 1L));
+
+        // --- ACT ---
+        index.putIfAbsent(readBeforeTransitions);
+        index.putIfAbsent(response("FFFF0002", "APPROVED", LocalDateTime.now(), 1L));
+        index.putIfAbsent(response("FFFF0003", "APPROVED", LocalDateTime.now(), 1L));
+
+        // --- ASSERT ---
+        assertNull(index.get(1L, "FFFF0001"));
+        assertNotNull(index.get(1L, "FFFF0002"));
+        assertNotNull(index.get(1L, "FFFF0003"));
+        assertEquals(2, index.getStats().get("entries"));
+    }
+
+    private VisitorPassResponse response(String passCode, String status, LocalDateTime visitDateTime) {
+        return response(passCode, status, visitDateTime, 0L);
+    }
+
+    private VisitorPassResponse response(String passCode, String status, LocalDateTime visitDateTime, long version) {
+        VisitorPassResponse response = new VisitorPassResponse();
+        response.setVersion(version);
+        response.setTenantId(1L);
+        response.setPassCode(passCode);
+        response.setStatus(status);
+        response.setVisitDateTime(visitDateTime);
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PassExpirySchedulerTest {
+
+    @Mock
+    private PassExpiryService passExpiryService;
+    @Mock
+    private VisitorPassRepository passRepository;
+
+    private PassExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(passExpiryService.getGracePeriod()).thenReturn(Duration.ofHours(2));
+        scheduler = new PassExpiryScheduler(passExpiryService, passRepository, 100, 15_000L);
+    }
+
+    @Test
+    void expireDuePasses_shouldOnlyExpirePassesPastDeadlineThatWereNotCancelled() {
+        // --- ARRANGE ---
+        LocalDateTime now = LocalDateTime.now();
+        scheduler.schedule(1L, now.minusHours(3));   // deadline an hour ago -> due
+        scheduler.schedule(2L, now.minusHours(3));   // due, but checked in below
+        scheduler.schedule(3L, now.minusHours(1));   // deadline in an hour -> not due yet
+        scheduler.cancel(2L);
+
+        // --- ACT ---
+        scheduler.expireDuePasses();
+
+        // --- ASSERT ---
+        verify(passExpiryService, times(1)).expirePasses(List.of(1L));
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    void schedule_whenRescheduled_shouldUseLatestDeadlineOnly() {
+        // --- ARRANGE ---
+        LocalDateTime now = LocalDateTime.now();
+        scheduler.schedule(1L, now.minusHours(3));
+        scheduler.schedule(1L, now.plusDays(1)); // visit moved to tomorrow
+
+        // --- ACT ---
+        scheduler.expireDuePasses();
+
+        // --- ASSERT ---
+        verify(passExpiryService, never()).expirePasses(anyList());
+        assertEquals(1, scheduler.getPendingCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.ExpiringPassView;
+import com.gt.visitor_pass_service.dto.PassExpiredEvent;
+import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PassExpiryServiceTest {
+
+    @Mock
+    private VisitorPassRepository passRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private RabbitOperations rabbitOperations;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PassCodeIndex passCodeIndex;
+    @Mock
+    private TenantPassCounters tenantPassCounters;
+    @Mock
+    private DashboardCache dashboardCache;
+    @Mock
+    private WebSocketUpdateService webSocketUpdateService;
+    @Mock
+    private GateRosterFeed gateRosterFeed;
+    @Mock
+    private PassRollupService passRollupService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PassExpiryService passExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        passExpiryService = new PassExpiryService(passRepository, auditService, rabbitTemplate, userRepository,
+                passCodeIndex, tenantPassCounters, dashboardCache, webSocketUpdateService, gateRosterFeed, passRollupService, transactionManager, 2, 1000L, Duration.ofHours(2));
+    }
+
+    @Test
+    void expireOldPasses_shouldWalkChunksAndOnlyNotifyPassesItActuallyExpired() {
+        // --- ARRANGE ---
+        // First chunk is full (2 passes) so the job asks for a second one, which is the last.
+        List<ExpiringPassView> firstChunk = List.of(view(1L, 10L), view(2L, 10L));
+        List<ExpiringPassView> secondChunk = List.of(view(3L, 20L));
+        when(passRepository.findOverduePassChunk(eq(PassStatus.APPROVED), any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(firstChunk);
+        when(passRepository.findOverduePassChunk(eq(PassStatus.APPROVED), any(LocalDateTime.class), eq(2L), any(Pageable.class)))
+                .thenReturn(secondChunk);
+
+        // Pass 2 was checked in by a guard (or is being expired by another node) between the SELECT and the lock.
+        when(passRepository.lockApprovedPassIdsSkipLocked(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(passRepository.lockApprovedPassIdsSkipLocked(List.of(3L))).thenReturn(List.of(3L));
+
+        when(auditService.buildLog(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            AuditLog log = new AuditLog();
+            log.setPassId(invocation.getArgument(3));
+            return log;
+        });
+        when(userRepository.findEmailsByTenantIdInAndRole(anyCollection(), eq("ROLE_TENANT_ADMIN")))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "admin10@example.com"}));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitOperations);
+        });
+
+        // --- ACT ---
+        passExpiryService.expireOldPasses();
+
+        // --- ASSERT ---
+        ArgumentCaptor<PassExpiredEvent> eventCaptor = ArgumentCaptor.forClass(PassExpiredEvent.class);
+        verify(rabbitOperations, times(2)).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ROUTING_KEY_EXPIRED), eventCaptor.capture());
+        List<PassExpiredEvent> events = eventCaptor.getAllValues();
+        assertEquals(1L, events.get(0).getPassId());
+        assertEquals("admin10@example.com", events.get(0).getTenantAdminEmail());
+        assertEquals(3L, events.get(1).getPassId());
+        assertEquals(null, events.get(1).getTenantAdminEmail());
+        verify(rabbitOperations, times(2)).waitForConfirmsOrDie(1000L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLog>> auditCaptor = ArgumentCaptor.forClass(List.class);
+        verify(auditService, times(2)).logEvents(auditCaptor.capture());
+        List<Long> auditedPassIds = new ArrayList<>();
+        auditCaptor.getAllValues().forEach(batch -> batch.forEach(log -> auditedPassIds.add(log.getPassId())));
+        assertEquals(List.of(1L, 3L), auditedPassIds);
+        // Only the locked rows are updated
+        verify(passRepository).expireApprovedPasses(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(passRepository).expireApprovedPasses(eq(List.of(3L)), any(LocalDateTime.class));
+
+        // Only the passes that really expired leave the gate index, as tombstones one version past the one read.
+        ArgumentCaptor<VisitorPassResponse> indexCaptor = ArgumentCaptor.forClass(VisitorPassResponse.class);
+        verify(passCodeIndex, times(2)).put(indexCaptor.capture());
+        assertEquals(List.of("CODE1", "CODE3"), indexCaptor.getAllValues().stream().map(VisitorPassResponse::getPassCode).toList());
+        assertEquals("EXPIRED", indexCaptor.getAllValues().get(0).getStatus());
+        assertEquals(8L, indexCaptor.getAllValues().get(0).getVersion());
+
+        // Each tenant's admin is looked up once, not once per pass.
+        verify(userRepository, times(2)).findEmailsByTenantIdInAndRole(anyCollection(), eq("ROLE_TENANT_ADMIN"));
+        verify(userRepository, never()).findFirstByTenantIdAndRole(anyLong(), anyString());
+    }
+
+    private ExpiringPassView view(Long id, Long tenantId) {
+        return new ExpiringPassView() {
+            public Long getId() { return id; }
+            public Long getTenantId() { return tenantId; }
+            public String getVisitorName() { return "Visitor " + id; }
+            public LocalDateTime getVisitDateTime() { return LocalDateTime.now().minusDays(1); }
+            public String getEmployeeEmail() { return "employee@example.com"; }
+            public String getPassCode() { return "CODE" + id; }
+            public Long getVersion() { return 7L; }
+        };
+    }
+}
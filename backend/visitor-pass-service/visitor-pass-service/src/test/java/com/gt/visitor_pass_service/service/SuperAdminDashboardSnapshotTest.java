@@ -0,0 +1,117 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.SuperAdminDashboardDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuperAdminDashboardSnapshotTest {
+
+    @Mock
+    private SuperAdminDashboardService dashboardService;
+
+    private final DashboardCache dashboardCache = new DashboardCache(60_000L);
+    private SuperAdminDashboardSnapshot snapshots;
+
+    @AfterEach
+    void tearDown() {
+        snapshots.shutdown();
+    }
+
+    @Test
+    void get_concurrentCallersWithoutASnapshot_shouldShareOneBuild() throws Exception {
+        // --- ARRANGE ---
+        snapshots = new SuperAdminDashboardSnapshot(dashboardService, dashboardCache, 60_000L, 0L);
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dashboardService.getDashboardData()).thenAnswer(invocation -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new SuperAdminDashboardDTO();
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // --- ACT ---
+        List<Future<SuperAdminDashboardSnapshot.Snapshot>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(snapshots::get));
+            }
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50L); // let the other callers join the build in flight
+            release.countDown();
+
+            // --- ASSERT ---
+            SuperAdminDashboardSnapshot.Snapshot first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<SuperAdminDashboardSnapshot.Snapshot> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertNotNull(first.dashboard().getGeneratedAt());
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(dashboardService, times(1)).getDashboardData();
+    }
+
+    @Test
+    void get_afterAPassChanged_shouldServeTheStaleSnapshotWhileRebuildingOnce() throws Exception {
+        // --- ARRANGE ---
+        snapshots = new SuperAdminDashboardSnapshot(dashboardService, dashboardCache, 60_000L, 0L);
+        SuperAdminDashboardDTO before = new SuperAdminDashboardDTO();
+        SuperAdminDashboardDTO after = new SuperAdminDashboardDTO();
+        CountDownLatch release = new CountDownLatch(1);
+        when(dashboardService.getDashboardData()).thenReturn(before).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return after;
+        });
+        SuperAdminDashboardSnapshot.Snapshot initial = snapshots.get();
+
+        // --- ACT ---
+        dashboardCache.invalidateTenant(1L);
+        SuperAdminDashboardSnapshot.Snapshot whileRebuilding = snapshots.get();
+        SuperAdminDashboardSnapshot.Snapshot stillRebuilding = snapshots.get();
+        release.countDown();
+
+        // --- ASSERT ---
+        assertSame(before, whileRebuilding.dashboard());
+        assertSame(before, stillRebuilding.dashboard());
+        long deadline = System.currentTimeMillis() + 2_000L;
+        while (snapshots.get().dashboard() != after && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        SuperAdminDashboardSnapshot.Snapshot rebuilt = snapshots.get();
+        assertSame(after, rebuilt.dashboard());
+        assertNotEquals(initial.eTag(), rebuilt.eTag());
+        verify(dashboardService, times(2)).getDashboardData();
+    }
+
+    @Test
+    void get_freshSnapshot_shouldNotRebuild() {
+        // --- ARRANGE ---
+        snapshots = new SuperAdminDashboardSnapshot(dashboardService, dashboardCache, 60_000L, 60_000L);
+        when(dashboardService.getDashboardData()).thenReturn(new SuperAdminDashboardDTO());
+
+        // --- ACT ---
+        SuperAdminDashboardSnapshot.Snapshot first = snapshots.get();
+        dashboardCache.invalidateTenant(1L); // too soon after the last build to rebuild for it
+        SuperAdminDashboardSnapshot.Snapshot second = snapshots.get();
+
+        // --- ASSERT ---
+        assertSame(first, second);
+        verify(dashboardService, times(1)).getDashboardData();
+    }
+}
@@ -0,0 +1,70 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.TenantDashboardStats;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantPassCountersTest {
+
+    @Mock
+    private VisitorPassRepository passRepository;
+
+    private TenantPassCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new TenantPassCounters(passRepository);
+    }
+
+    @Test
+    void getStats_beforeFirstReconcile_shouldReturnNullSoTheDatabaseIsUsed() {
+        // --- ACT & ASSERT ---
+        assertNull(counters.getStats(1L));
+    }
+
+    @Test
+    void getStats_shouldServeReconciledCountsPlusLaterTransitionsWithoutQuerying() {
+        // --- ARRANGE ---
+        when(passRepository.countByTenantAndStatus()).thenReturn(List.of(
+                new Object[]{1L, PassStatus.PENDING, 4L},
+                new Object[]{1L, PassStatus.APPROVED, 3L},
+                new Object[]{1L, PassStatus.CHECKED_IN, 1L},
+                new Object[]{2L, PassStatus.PENDING, 9L}));
+        when(passRepository.countByTenantAndStatusForVisitsBetween(any(), any())).thenReturn(List.of(
+                new Object[]{1L, PassStatus.APPROVED, 2L},
+                new Object[]{1L, PassStatus.CHECKED_OUT, 5L}));
+        counters.reconcile();
+
+        LocalDateTime today = LocalDateTime.now();
+        LocalDateTime nextWeek = today.plusDays(7);
+
+        // --- ACT ---
+        counters.onTransition(1L, today, PassStatus.APPROVED, PassStatus.CHECKED_IN);    // approved today -1, checked in +1
+        counters.onTransition(1L, nextWeek, PassStatus.PENDING, PassStatus.APPROVED);    // pending -1, not visiting today
+        counters.onTransition(1L, today, null, PassStatus.PENDING);                      // new pass, pending +1
+        counters.onTransition(1L, today.toLocalDate().atStartOfDay(), PassStatus.APPROVED, PassStatus.EXPIRED); // completed today +1
+        TenantDashboardStats stats = counters.getStats(1L);
+
+        // --- ASSERT ---
+        assertEquals(4, stats.getPendingPasses());
+        assertEquals(0, stats.getApprovedPassesToday());
+        assertEquals(2, stats.getCheckedInVisitors());
+        assertEquals(6, stats.getCompletedPassesToday());
+        assertEquals(9, counters.getStats(2L).getPendingPasses());
+        assertEquals(0, counters.getStats(3L).getPendingPasses());
+        verify(passRepository, times(1)).countByTenantAndStatus();
+    }
+}
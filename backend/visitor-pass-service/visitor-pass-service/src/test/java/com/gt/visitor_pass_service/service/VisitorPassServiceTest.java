@@ -3,6 +3,8 @@ package com.gt.visitor_pass_service.service;
 import com.gt.visitor_pass_service.dto.CreatePassRequest;
 import com.gt.visitor_pass_service.dto.PassApprovedEvent;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.exception.PassTransitionConflictException;
+import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
 import com.gt.visitor_pass_service.model.Tenant;
 import com.gt.visitor_pass_service.model.User;
 import com.gt.visitor_pass_service.model.VisitorPass;
@@ -38,6 +40,20 @@ class VisitorPassServiceTest {
     private AuditService auditService;
     @Mock
     private WebSocketUpdateService webSocketUpdateService;
+    @Mock
+    private PassExpiryScheduler passExpiryScheduler;
+    @Mock
+    private PassCodeIndex passCodeIndex;
+    @Mock
+    private PassStateMachine passStateMachine;
+    @Mock
+    private TenantPassCounters tenantPassCounters;
+    @Mock
+    private DashboardCache dashboardCache;
+    @Mock
+    private GateRosterFeed gateRosterFeed;
+    @Mock
+    private PassRollupService passRollupService;
 
     @InjectMocks
     private VisitorPassService visitorPassService;
@@ -97,41 +113,67 @@ class VisitorPassServiceTest {
         assertEquals(employee, savedPass.getCreatedBy());
 
         // Verify that the WebSocket service was notified
-        verify(webSocketUpdateService, times(1)).notifyDashboardUpdate(1L);
+        verify(webSocketUpdateService, times(1)).notifyPassChanged(eq(1L), any(), any(), eq("John Smith"), any(), isNull(), eq(PassStatus.PENDING));
     }
     
     @Test
     void approvePass_whenPassIsPending_shouldSetStatusToApprovedAndSendEvent() {
         // --- ARRANGE ---
         when(userRepository.findByEmail("approver@example.com")).thenReturn(Optional.of(approver));
-        when(passRepository.findById(100L)).thenReturn(Optional.of(pendingPass));
-        when(passRepository.save(any(VisitorPass.class))).thenReturn(pendingPass);
+        when(passStateMachine.approve(100L, approver)).thenReturn(true);
+        pendingPass.setStatus(PassStatus.APPROVED); // state after the conditional UPDATE
+        pendingPass.setApprovedBy(approver);
+        when(passRepository.findWithDetailsById(100L)).thenReturn(Optional.of(pendingPass));
 
         // --- ACT ---
-        visitorPassService.approvePass(100L, "approver@example.com");
+        VisitorPassResponse result = visitorPassService.approvePass(100L, "approver@example.com");
 
         // --- ASSERT ---
-        ArgumentCaptor<VisitorPass> passCaptor = ArgumentCaptor.forClass(VisitorPass.class);
-        verify(passRepository).save(passCaptor.capture());
-        VisitorPass savedPass = passCaptor.getValue();
-
-        assertEquals(PassStatus.APPROVED, savedPass.getStatus());
-        assertEquals(approver, savedPass.getApprovedBy());
+        assertEquals("APPROVED", result.getStatus());
+        verify(passRepository, never()).save(any(VisitorPass.class));
 
         verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), any(PassApprovedEvent.class));
+        verify(passExpiryScheduler, times(1)).schedule(eq(100L), any());
     }
     
     @Test
-    void checkIn_whenPassIsNotApproved_shouldThrowIllegalStateException() {
+    void checkIn_whenPassIsNotApproved_shouldThrowPassTransitionConflictException() {
         // --- ARRANGE ---
-        // pendingPass has status PENDING, not APPROVED
-        when(passRepository.findById(100L)).thenReturn(Optional.of(pendingPass));
+        // pendingPass has status PENDING, not APPROVED, so the conditional UPDATE matches nothing
+        when(passStateMachine.transition(100L, PassStatus.APPROVED, PassStatus.CHECKED_IN)).thenReturn(false);
+        when(passRepository.existsById(100L)).thenReturn(true);
 
         // --- ACT & ASSERT ---
-        Exception exception = assertThrows(IllegalStateException.class, () -> {
+        Exception exception = assertThrows(PassTransitionConflictException.class, () -> {
             visitorPassService.checkIn(100L);
         });
         
         assertEquals("Pass must be approved before check-in.", exception.getMessage());
+        verify(auditService, never()).logEvent(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void checkIn_whenPassDoesNotExist_shouldThrowResourceNotFoundException() {
+        // --- ARRANGE ---
+        when(passStateMachine.transition(999L, PassStatus.APPROVED, PassStatus.CHECKED_IN)).thenReturn(false);
+        when(passRepository.existsById(999L)).thenReturn(false);
+
+        // --- ACT & ASSERT ---
+        assertThrows(ResourceNotFoundException.class, () -> visitorPassService.checkIn(999L));
+    }
+
+    @Test
+    void findByPassCode_whenPassIsIndexed_shouldNotQueryDatabase() {
+        // --- ARRANGE ---
+        VisitorPassResponse indexed = new VisitorPassResponse();
+        indexed.setPassCode("ABCD1234");
+        when(passCodeIndex.get(1L, "ABCD1234")).thenReturn(indexed);
+
+        // --- ACT ---
+        VisitorPassResponse result = visitorPassService.findByPassCode(1L, "ABCD1234");
+
+        // --- ASSERT ---
+        assertSame(indexed, result);
+        verifyNoInteractions(passRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.RelayedWebSocketMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.adapter.MessageListenerAdapter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs two relays ("nodes") against a real RabbitMQ with the same exchange, per-node queues and binding
+ * as WebSocketRelayConfig, and checks that a message sent on one node reaches the other node's subscribers once.
+ *
+ * Needs a RabbitMQ on localhost:5672 (guest/guest), so it is opt-in:
+ *   mvn test -Dtest=WebSocketClusterRelayBrokerTest -Drabbitmq.relay=true
+ */
+@EnabledIfSystemProperty(named = "rabbitmq.relay", matches = "true")
+class WebSocketClusterRelayBrokerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<SimpleMessageListenerContainer> containers = new ArrayList<>();
+    private CachingConnectionFactory connectionFactory;
+    private RabbitAdmin admin;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new CachingConnectionFactory("localhost");
+        admin = new RabbitAdmin(connectionFactory);
+        admin.declareExchange(new TopicExchange(RabbitMQConfig.EXCHANGE_NAME));
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(SimpleMessageListenerContainer::stop);
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void send_shouldReachTheSubscribersOfEveryNode() {
+        // --- ARRANGE ---
+        SimpMessagingTemplate brokerA = mock(SimpMessagingTemplate.class);
+        SimpMessagingTemplate brokerB = mock(SimpMessagingTemplate.class);
+        WebSocketClusterRelay nodeA = startNode(brokerA);
+        startNode(brokerB);
+
+        // --- ACT ---
+        nodeA.send("/topic/dashboard/1", Map.of("type", "PASS_CHANGES"));
+
+        // --- ASSERT ---
+        verify(brokerA).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+        verify(brokerB, timeout(5_000L)).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+        // Node A ignores its own relayed copy and node B gets exactly one
+        verify(brokerA, after(500L).times(1)).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+        verify(brokerB, times(1)).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+    }
+
+    private WebSocketClusterRelay startNode(SimpMessagingTemplate localBroker) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(localBroker, rabbitTemplate, objectMapper, true);
+
+        Queue queue = new AnonymousQueue();
+        admin.declareQueue(queue);
+        admin.declareBinding(BindingBuilder.bind(queue).to(new TopicExchange(RabbitMQConfig.EXCHANGE_NAME))
+                .with(RabbitMQConfig.ROUTING_KEY_WEBSOCKET_RELAY));
+
+        MessageListenerAdapter listener = new MessageListenerAdapter(new Object() {
+            @SuppressWarnings("unused")
+            public void handleMessage(RelayedWebSocketMessage message) {
+                relay.deliverRelayed(message);
+            }
+        }, new Jackson2JsonMessageConverter());
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueues(queue);
+        container.setMessageListener(listener);
+        container.start();
+        containers.add(container);
+        return relay;
+    }
+}
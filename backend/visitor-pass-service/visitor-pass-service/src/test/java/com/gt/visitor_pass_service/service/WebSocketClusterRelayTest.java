@@ -0,0 +1,111 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.RelayedWebSocketMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketClusterRelayTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void send_shouldOnlyDeliverLocallyWhenTheRelayIsDisabled() {
+        // --- ARRANGE ---
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(messagingTemplate, rabbitTemplate, objectMapper, false);
+        Map<String, Object> payload = Map.of("type", "PASS_CHANGES");
+
+        // --- ACT ---
+        relay.send("/topic/dashboard/1", payload);
+
+        // --- ASSERT ---
+        verify(messagingTemplate).convertAndSend("/topic/dashboard/1", payload);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void send_shouldDeliverLocallyAndPublishToTheOtherNodes() {
+        // --- ARRANGE ---
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(messagingTemplate, rabbitTemplate, objectMapper, true);
+        Map<String, Object> payload = Map.of("type", "PASS_CHANGES");
+
+        // --- ACT ---
+        relay.send("/topic/dashboard/1", payload);
+
+        // --- ASSERT ---
+        verify(messagingTemplate).convertAndSend("/topic/dashboard/1", payload);
+        ArgumentCaptor<RelayedWebSocketMessage> captor = ArgumentCaptor.forClass(RelayedWebSocketMessage.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ROUTING_KEY_WEBSOCKET_RELAY), captor.capture());
+        assertEquals(relay.getNodeId(), captor.getValue().getOriginNodeId());
+        assertEquals("/topic/dashboard/1", captor.getValue().getDestination());
+        assertEquals("{\"type\":\"PASS_CHANGES\"}", captor.getValue().getPayloadJson());
+    }
+
+    @Test
+    void send_shouldStillDeliverLocallyWhenTheBrokerIsDown() {
+        // --- ARRANGE ---
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(messagingTemplate, rabbitTemplate, objectMapper, true);
+        doThrow(new AmqpConnectException(new RuntimeException("connection refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        // --- ACT ---
+        assertDoesNotThrow(() -> relay.send("/topic/dashboard/1", Map.of("type", "PASS_CHANGES")));
+
+        // --- ASSERT ---
+        verify(messagingTemplate).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+    }
+
+    @Test
+    void deliverRelayed_shouldForwardOtherNodesMessagesAndIgnoreItsOwn() throws Exception {
+        // --- ARRANGE ---
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(messagingTemplate, rabbitTemplate, objectMapper, true);
+        String json = "{\"type\":\"PASS_CHANGES\",\"tenantId\":1}";
+
+        // --- ACT ---
+        relay.deliverRelayed(new RelayedWebSocketMessage(relay.getNodeId(), "/topic/dashboard/1", json));
+        relay.deliverRelayed(new RelayedWebSocketMessage("other-node", "/topic/dashboard/1", json));
+
+        // --- ASSERT ---
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/dashboard/1"), any(Object.class));
+        verify(messagingTemplate).convertAndSend("/topic/dashboard/1", (Object) objectMapper.readTree(json));
+    }
+
+    @Test
+    void deliverRelayed_shouldHandMatchingMessagesToRelayedListeners() {
+        // --- ARRANGE ---
+        WebSocketClusterRelay relay = new WebSocketClusterRelay(messagingTemplate, rabbitTemplate, objectMapper, true);
+        List<String> received = new ArrayList<>();
+        relay.addRelayedListener("/topic/gate/", (destination, json) -> received.add(destination + " " + json));
+
+        // --- ACT ---
+        relay.deliverRelayed(new RelayedWebSocketMessage("other-node", "/topic/gate/1", "{\"id\":3}"));
+        relay.deliverRelayed(new RelayedWebSocketMessage("other-node", "/topic/dashboard/1", "{\"id\":4}"));
+
+        // --- ASSERT ---
+        assertEquals(List.of("/topic/gate/1 {\"id\":3}"), received);
+    }
+}
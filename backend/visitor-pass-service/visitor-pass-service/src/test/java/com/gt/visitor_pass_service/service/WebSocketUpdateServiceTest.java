@@ -0,0 +1,68 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.DashboardDeltaMessage;
+import com.gt.visitor_pass_service.dto.PassChangeSummary;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketUpdateServiceTest {
+
+    @Mock
+    private WebSocketClusterRelay relay;
+
+    private WebSocketUpdateService webSocketUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        webSocketUpdateService = new WebSocketUpdateService(relay, 100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webSocketUpdateService.shutdown();
+    }
+
+    @Test
+    void notifyPassChanged_shouldCoalesceABurstIntoOneDeltaPerTenant() {
+        // --- ARRANGE ---
+        LocalDateTime today = LocalDateTime.now();
+        LocalDateTime nextWeek = today.plusDays(7);
+
+        // --- ACT ---
+        webSocketUpdateService.notifyPassChanged(1L, 10L, "AAA", "Ann", today, null, PassStatus.PENDING);
+        webSocketUpdateService.notifyPassChanged(1L, 10L, "AAA", "Ann", today, PassStatus.PENDING, PassStatus.APPROVED);
+        webSocketUpdateService.notifyPassChanged(1L, 11L, "BBB", "Bob", nextWeek, PassStatus.PENDING, PassStatus.REJECTED);
+        webSocketUpdateService.notifyPassChanged(2L, 20L, "CCC", "Cat", today, PassStatus.APPROVED, PassStatus.CHECKED_IN);
+
+        // --- ASSERT ---
+        ArgumentCaptor<DashboardDeltaMessage> captor = ArgumentCaptor.forClass(DashboardDeltaMessage.class);
+        verify(relay, timeout(2_000L).times(1)).send(eq("/topic/dashboard/1"), captor.capture());
+        verify(relay, timeout(2_000L).times(1)).send(eq("/topic/dashboard/2"), any(Object.class));
+
+        DashboardDeltaMessage message = captor.getValue();
+        assertEquals("PASS_CHANGES", message.getType());
+        List<PassChangeSummary> passes = message.getPasses();
+        assertEquals(2, passes.size());
+        assertNull(passes.get(0).getPreviousStatus()); // created and approved in the same window
+        assertEquals("APPROVED", passes.get(0).getStatus());
+        assertEquals("REJECTED", passes.get(1).getStatus());
+        // +1 -1 pending for Ann, -1 for Bob; Ann is approved for today
+        assertEquals(Map.of("pendingPasses", -1L, "approvedPassesToday", 1L), message.getStatDeltas());
+    }
+}
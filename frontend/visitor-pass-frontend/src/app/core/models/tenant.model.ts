@@ -28,4 +28,5 @@ export interface SuperAdminDashboard {
 globalStats: GlobalStats;
 tenantActivity: TenantActivity[];
 recentPassesAcrossAllTenants: any[];
+generatedAt?: string;
 }
\ No newline at end of file